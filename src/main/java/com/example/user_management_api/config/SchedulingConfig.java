@@ -0,0 +1,12 @@
+package com.example.user_management_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включает фоновые задачи по расписанию (истечение refresh-токенов и т.п.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,7 +2,11 @@ package com.example.user_management_api.config;
 
 import com.example.user_management_api.secutity.jwt.JwtAuthEntryPoint;
 import com.example.user_management_api.secutity.jwt.JwtAuthFilter;
+import com.example.user_management_api.secutity.ratelimit.RateLimitFilter;
+import com.example.user_management_api.secutity.ratelimit.RateLimitProperties;
+import com.example.user_management_api.service.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,7 +17,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -21,10 +24,12 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
     private final JwtAuthEntryPoint unauthorizedHandler;
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -42,18 +47,32 @@ public class SecurityConfig {
                 );
 
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(rateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
 
     /**
      * PasswordEncoder, для хеширования паролей.
+     * BCrypt выполняется на выделенном пуле {@link PasswordHashingService},
+     * а не на потоке обработки запроса.
      *
-     * @return реализация BCryptPasswordEncoder.
+     * @param passwordHashingService сервис хеширования с ограниченной очередью.
+     * @return PasswordEncoder, делегирующий в пул хеширования.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingService passwordHashingService) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return passwordHashingService.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return passwordHashingService.matches(rawPassword, encodedPassword);
+            }
+        };
     }
 
     @Bean
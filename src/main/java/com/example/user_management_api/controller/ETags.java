@@ -0,0 +1,71 @@
+package com.example.user_management_api.controller;
+
+import com.example.user_management_api.exception.PreconditionFailedException;
+
+/**
+ * ETag из версий сущностей и разбор условных заголовков {@code If-None-Match} / {@code If-Match}.
+ */
+final class ETags {
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * @param versionTag метка версии.
+     * @return сильный ETag (в кавычках).
+     */
+    static String of(Object versionTag) {
+        return "\"" + versionTag + "\"";
+    }
+
+    /**
+     * Проверяет {@code If-None-Match}: для него используется слабое сравнение, поэтому {@code W/} игнорируется.
+     * @param header значение заголовка или null.
+     * @param eTag   текущий ETag ресурса.
+     * @return true, если клиенту можно ответить 304.
+     */
+    static boolean matchesNoneMatch(String header, String eTag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Разбирает {@code If-Match} с одним сильным ETag в ожидаемую версию.
+     * @param header значение заголовка или null.
+     * @return версия или null, если заголовка нет или он равен {@code *}.
+     * @throws PreconditionFailedException если ETag слабый или не соответствует ни одной версии.
+     * @throws IllegalArgumentException    если в заголовке несколько ETag.
+     */
+    static Long parseIfMatch(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        String tag = header.trim();
+        if (tag.contains(",")) {
+            throw new IllegalArgumentException("If-Match with multiple entity tags is not supported");
+        }
+        if (tag.startsWith(WEAK_PREFIX) || tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match requires a strong entity tag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the current entity tag");
+        }
+    }
+}
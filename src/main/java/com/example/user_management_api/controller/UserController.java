@@ -1,18 +1,36 @@
 package com.example.user_management_api.controller;
 
+import com.example.user_management_api.dto.BatchCreateUserResultDto;
 import com.example.user_management_api.dto.ChangePasswordRequestDto;
 import com.example.user_management_api.dto.CreateUserRequestDto;
+import com.example.user_management_api.dto.CursorPageResponseDto;
+import com.example.user_management_api.dto.SliceResponseDto;
 import com.example.user_management_api.dto.UpdateUserDataRequestDto;
+import com.example.user_management_api.dto.UserChangesResponseDto;
 import com.example.user_management_api.dto.UserContactInfoResponseDto;
 import com.example.user_management_api.dto.UserDataResponseDto;
+import com.example.user_management_api.dto.UserImportResultDto;
+import com.example.user_management_api.dto.UserLookupRequestDto;
+import com.example.user_management_api.dto.UserLookupResponseDto;
 import com.example.user_management_api.dto.UserResponseDto;
+import com.example.user_management_api.dto.VersionedDto;
+import com.example.user_management_api.fieldset.UserField;
+import com.example.user_management_api.pagination.UserSortKey;
+import com.example.user_management_api.service.UserBatchService;
+import com.example.user_management_api.service.UserCountService;
+import com.example.user_management_api.service.UserExportService;
+import com.example.user_management_api.service.UserImportService;
 import com.example.user_management_api.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -20,9 +38,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -30,6 +55,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final UserBatchService userBatchService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserCountService userCountService;
 
     @PostMapping
     public ResponseEntity<UserResponseDto> createUser(@Valid @RequestBody CreateUserRequestDto requestDto) {
@@ -37,23 +66,148 @@ public class UserController {
         return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
     }
 
+    /**
+     * Создает пользователей пакетом. Ответ содержит результат по каждому элементу:
+     * ошибка в одном элементе не отменяет создание остальных.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<BatchCreateUserResultDto>> createUsers(@RequestBody List<CreateUserRequestDto> requests) {
+        return ResponseEntity.ok(userBatchService.createUsers(requests));
+    }
+
+    /**
+     * Выгружает всех пользователей потоком в формате {@code ndjson} или {@code csv}.
+     * Ответ пишется по мере чтения из БД, поэтому объем выгрузки не ограничен памятью приложения.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        UserExportService.Format exportFormat = UserExportService.Format.fromParam(format);
+        StreamingResponseBody body = out -> userExportService.exportUsers(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Импортирует пользователей из CSV, переданного телом запроса ({@code Content-Type: text/csv}).
+     * Тело читается потоком, поэтому размер файла не ограничен настройками multipart.
+     * Записи с ошибками пропускаются и перечисляются в ответе.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResultDto> importUsers(InputStream csv) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(csv));
+    }
+
+    /**
+     * Возвращает пользователей по списку id одним запросом к БД вместо отдельного запроса на каждого.
+     * Пользователи возвращаются в порядке запроса, отсутствующие id перечисляются в {@code notFound}.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<UserLookupResponseDto> lookupUsers(@Valid @RequestBody UserLookupRequestDto requestDto) {
+        return ResponseEntity.ok(userService.lookupUsers(requestDto.ids()));
+    }
+
+    /**
+     * Поиск пользователей по префиксу или нечеткому совпадению с ФИО, email или телефоном.
+     * Возвращает не больше {@code limit} (до 50) наиболее релевантных пользователей.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<UserResponseDto>> searchUsers(@RequestParam("q") String query,
+                                                             @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(userService.searchUsers(query, limit));
+    }
+
+    /**
+     * Возвращает пользователя с ETag. Если {@code If-None-Match} совпадает с текущей версией,
+     * отвечает 304 по одному запросу версий, не загружая и не сериализуя данные.
+     * Без {@code If-None-Match} версии отдельно не читаются: ETag собирается из загруженных данных.
+     * Параметр {@code fields} (имена полей через запятую) ограничивает ответ и читаемые колонки.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponseDto> getUserById(@PathVariable UUID id) {
-        UserResponseDto user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<?> getUserById(@PathVariable UUID id,
+                                         @RequestParam(required = false) String fields,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<UserField> fieldSet = fields == null ? null : UserField.parse(fields);
+        if (ifNoneMatch != null) {
+            String eTag = userETag(userService.getUserVersionTag(id), fieldSet);
+            if (ETags.matchesNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        VersionedDto<?> user = fieldSet == null
+                ? userService.getVersionedUserById(id)
+                : userService.getVersionedUserFieldsById(id, fieldSet);
+        return ResponseEntity.ok().eTag(userETag(user.versionTag(), fieldSet)).body(user.body());
     }
 
+    /**
+     * Страница пользователей. Параметр {@code fields} работает так же, как в {@link #getUserById}.
+     */
     @GetMapping
-    public ResponseEntity<Page<UserResponseDto>> getAllUsers(Pageable pageable) {
-        Page<UserResponseDto> usersPage = userService.getAllUsers(pageable);
+    public ResponseEntity<Page<?>> getAllUsers(Pageable pageable, @RequestParam(required = false) String fields) {
+        Page<?> usersPage = fields == null
+                ? userService.getAllUsers(pageable)
+                : userService.getAllUsers(pageable, UserField.parse(fields));
         return ResponseEntity.ok(usersPage);
     }
 
+    /**
+     * Страница пользователей без точного подсчета общего количества: только признак следующей страницы.
+     * С {@code totalEstimate=true} добавляется приблизительное количество из статистики PostgreSQL.
+     */
+    @GetMapping("/slice")
+    public ResponseEntity<SliceResponseDto<UserResponseDto>> getUserSlice(Pageable pageable,
+                                                                          @RequestParam(defaultValue = "false") boolean totalEstimate) {
+        Slice<UserResponseDto> slice = userService.getUserSlice(pageable);
+        Long estimate = totalEstimate ? userCountService.estimateUserCount() : null;
+        return ResponseEntity.ok(new SliceResponseDto<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                slice.hasNext(), estimate));
+    }
+
+    /**
+     * Постраничный обход пользователей по курсору. В отличие от {@link #getAllUsers(Pageable, String)}
+     * не использует OFFSET и не считает общее количество, поэтому не замедляется на дальних страницах.
+     * Сортировка только по возрастанию: {@code id}, {@code email} или {@code lastName}.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponseDto<UserResponseDto>> getUsersByCursor(
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.getUsersByCursor(UserSortKey.fromParam(sort), cursor, size));
+    }
+
+    /**
+     * Лента изменений для синхронизации копий справочника: пользователи, измененные или удаленные
+     * после курсора {@code since}, в их текущем состоянии. Первый запрос без {@code since} выдает всех
+     * пользователей; затем клиент передает {@code nextCursor} из предыдущего ответа.
+     * <p>
+     * Лента отдает изменения только тех транзакций, которые начались раньше самой старой еще открытой
+     * транзакции в БД. Пока в БД открыта долгая пишущая транзакция (в том числе не относящаяся
+     * к пользователям), лента возвращает пустые страницы с прежним курсором, а накопленные изменения
+     * приходят сразу после ее завершения. Поэтому массовые записи, например импорт CSV, коммитятся порциями.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<UserChangesResponseDto> getUserChanges(@RequestParam(required = false) String since,
+                                                                 @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(userService.getUserChanges(since, size));
+    }
 
+    /**
+     * Обновляет персональные данные. С {@code If-Match} обновление выполняется, только если данные
+     * не менялись с момента чтения клиентом, иначе 412.
+     */
     @PutMapping("/{id}/data")
-    public ResponseEntity<UserDataResponseDto> updateUserData(@PathVariable UUID id, @Valid @RequestBody UpdateUserDataRequestDto requestDto) {
-        UserDataResponseDto updatedUserData = userService.updateUser(id, requestDto);
-        return ResponseEntity.ok(updatedUserData);
+    public ResponseEntity<UserDataResponseDto> updateUserData(@PathVariable UUID id,
+                                                              @Valid @RequestBody UpdateUserDataRequestDto requestDto,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserDataResponseDto updatedUserData = userService.updateUser(id, requestDto, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedUserData.version())).body(updatedUserData);
     }
 
     @DeleteMapping("/{id}")
@@ -75,10 +229,27 @@ public class UserController {
         return ResponseEntity.ok(contactInfo);
     }
 
+    /**
+     * Возвращает персональные данные с ETag; при совпадении {@code If-None-Match} отвечает 304
+     * по запросу одной версии.
+     */
     @GetMapping("/{id}/data")
-    public ResponseEntity<UserDataResponseDto> getUserData(@PathVariable UUID id) {
+    public ResponseEntity<UserDataResponseDto> getUserData(@PathVariable UUID id,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String eTag = ETags.of(userService.getUserDataVersion(id));
+            if (ETags.matchesNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
         UserDataResponseDto userData = userService.getUserData(id);
-        return ResponseEntity.ok(userData);
+        return ResponseEntity.ok().eTag(ETags.of(userData.version())).body(userData);
     }
 
+    /**
+     * У частичного представления свой ETag: набор полей входит в метку.
+     */
+    private static String userETag(String versionTag, Set<UserField> fieldSet) {
+        return ETags.of(fieldSet == null ? versionTag : versionTag + ";" + UserField.toTag(fieldSet));
+    }
 }
@@ -0,0 +1,102 @@
+package com.example.user_management_api.csv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение CSV по RFC 4180: поля в двойных кавычках могут содержать запятые,
+ * переводы строк и удвоенные кавычки. Читает по одной записи, не загружая файл целиком.
+ */
+public class CsvReader {
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine;
+    private int pushedBack = -1;
+
+    /**
+     * @param reader источник; рекомендуется буферизованный.
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return поля следующей записи или {@code null}, если данные закончились.
+     * @throws IOException              при ошибке чтения.
+     * @throws IllegalArgumentException если кавычка не закрыта до конца файла.
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting at line " + recordLine);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    countLine(c);
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        pushedBack = following;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return номер строки файла (с 1), с которой началась последняя прочитанная запись.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -1) {
+            int c = pushedBack;
+            pushedBack = -1;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void countLine(int c) {
+        if (c == '\n') {
+            line++;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.user_management_api.csv;
+
+import java.io.IOException;
+import java.sql.Date;
+
+/**
+ * Запись CSV по RFC 4180. {@code null} пишется пустым полем без кавычек — именно так
+ * его понимает {@code COPY ... (FORMAT csv)} в PostgreSQL.
+ */
+public class CsvWriter {
+    private final Appendable out;
+
+    public CsvWriter(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Пишет запись и перевод строки.
+     * @param values значения полей; {@link java.sql.Date} пишется в ISO-формате.
+     */
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writeValue(values[i]);
+        }
+        out.append('\n');
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Date date ? date.toLocalDate().toString() : value.toString();
+        if (text.isEmpty()) {
+            // Пустая строка в кавычках, чтобы ее нельзя было спутать с null
+            out.append("\"\"");
+            return;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            out.append(text);
+            return;
+        }
+        out.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
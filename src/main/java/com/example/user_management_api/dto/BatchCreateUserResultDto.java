@@ -0,0 +1,29 @@
+package com.example.user_management_api.dto;
+
+/**
+ * Результат создания одного пользователя из пакета.
+ *
+ * @param index  позиция элемента во входном списке.
+ * @param status итог обработки элемента.
+ * @param user   созданный пользователь (только для {@link Status#CREATED}).
+ * @param error  причина отказа (только для {@link Status#FAILED}).
+ */
+public record BatchCreateUserResultDto(
+        int index,
+        Status status,
+        UserResponseDto user,
+        String error
+) {
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    public static BatchCreateUserResultDto created(int index, UserResponseDto user) {
+        return new BatchCreateUserResultDto(index, Status.CREATED, user, null);
+    }
+
+    public static BatchCreateUserResultDto failed(int index, String error) {
+        return new BatchCreateUserResultDto(index, Status.FAILED, null, error);
+    }
+}
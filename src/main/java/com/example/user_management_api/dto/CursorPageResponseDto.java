@@ -0,0 +1,17 @@
+package com.example.user_management_api.dto;
+
+import java.util.List;
+
+/**
+ * Страница результатов при обходе по курсору.
+ *
+ * @param content    элементы страницы.
+ * @param nextCursor курсор для запроса следующей страницы или null, если страница последняя.
+ * @param hasNext    есть ли следующая страница.
+ */
+public record CursorPageResponseDto<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.user_management_api.dto;
+
+import java.util.List;
+
+/**
+ * Страница результатов без подсчета общего количества.
+ *
+ * @param content       элементы страницы.
+ * @param page          номер страницы.
+ * @param size          размер страницы.
+ * @param hasNext       есть ли следующая страница.
+ * @param totalEstimate приблизительное общее количество или null, если оно не запрашивалось.
+ */
+public record SliceResponseDto<T>(
+        List<T> content,
+        int page,
+        int size,
+        boolean hasNext,
+        Long totalEstimate
+) {
+}
@@ -0,0 +1,20 @@
+package com.example.user_management_api.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Изменение пользователя в ленте изменений.
+ *
+ * @param id        id пользователя.
+ * @param deleted   пользователь удален; в этом случае {@code user} равен null.
+ * @param changedAt время последнего изменения.
+ * @param user      текущее состояние пользователя.
+ */
+public record UserChangeDto(
+        UUID id,
+        boolean deleted,
+        Instant changedAt,
+        UserResponseDto user
+) {
+}
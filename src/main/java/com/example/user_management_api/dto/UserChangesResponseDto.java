@@ -0,0 +1,17 @@
+package com.example.user_management_api.dto;
+
+import java.util.List;
+
+/**
+ * Порция ленты изменений пользователей.
+ *
+ * @param changes    изменения после курсора запроса; пользователь встречается не больше одного раза.
+ * @param nextCursor курсор для следующего запроса; возвращается всегда, даже если изменений нет.
+ * @param hasMore    есть ли уже доступные изменения после {@code nextCursor}.
+ */
+public record UserChangesResponseDto(
+        List<UserChangeDto> changes,
+        String nextCursor,
+        boolean hasMore
+) {
+}
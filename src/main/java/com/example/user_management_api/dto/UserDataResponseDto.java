@@ -5,6 +5,7 @@ import java.util.UUID;
 
 /**
  * DTO для ответа с детальной (персональной) информацией пользователя.
+ * {@code version} совпадает с ETag ответа и передается в {@code If-Match} при обновлении.
  */
 public record UserDataResponseDto (
         UUID userId,
@@ -12,6 +13,7 @@ public record UserDataResponseDto (
         String lastName,
         String patronymic,
         LocalDate dateOfBirth,
-        String avatarKey
+        String avatarKey,
+        long version
 ){
 }
@@ -0,0 +1,26 @@
+package com.example.user_management_api.dto;
+
+import java.util.List;
+
+/**
+ * Итог импорта пользователей из CSV.
+ *
+ * @param total    количество записей в файле (без заголовка).
+ * @param imported количество созданных пользователей.
+ * @param failed   количество отклоненных записей.
+ * @param errors   причины отказа по записям; список ограничен {@code app.users.import.max-reported-errors},
+ *                 поэтому может быть короче {@code failed}.
+ */
+public record UserImportResultDto(
+        long total,
+        long imported,
+        long failed,
+        List<RowError> errors
+) {
+    /**
+     * @param line  номер строки файла, с которой начинается запись.
+     * @param error причина отказа.
+     */
+    public record RowError(long line, String error) {
+    }
+}
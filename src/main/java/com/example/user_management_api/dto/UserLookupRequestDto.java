@@ -0,0 +1,17 @@
+package com.example.user_management_api.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Запрос пакетного получения пользователей.
+ *
+ * @param ids id пользователей; порядок определяет порядок ответа.
+ */
+public record UserLookupRequestDto(
+        @NotNull(message = "Ids cannot be null")
+        List<UUID> ids
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.user_management_api.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Результат пакетного получения пользователей.
+ *
+ * @param users    найденные пользователи в порядке запроса.
+ * @param notFound запрошенные id, для которых пользователь не найден, в порядке запроса.
+ */
+public record UserLookupResponseDto(
+        List<UserResponseDto> users,
+        List<UUID> notFound
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.user_management_api.dto;
+
+/**
+ * Данные вместе с меткой версии, прочитанной в том же обращении к БД или раньше данных.
+ * Метка не бывает новее данных, поэтому годится для ETag ответа.
+ *
+ * @param versionTag метка версии.
+ * @param body       данные.
+ */
+public record VersionedDto<T>(
+        String versionTag,
+        T body
+) {
+}
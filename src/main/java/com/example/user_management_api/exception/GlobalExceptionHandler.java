@@ -4,9 +4,12 @@ import com.example.user_management_api.dto.ErrorResponseDto;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -83,6 +86,64 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Обрабатывает {@link AccessDeniedException}, когда у пользователя нет прав на операцию
+     * (например, административные эндпоинты без роли ADMIN).
+     *
+     * @param ex      перехваченное исключение {@code AccessDeniedException}.
+     * @param request объект запроса.
+     * @return {@link ResponseEntity} со статусом 403 (Forbidden).
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponseDto> handleAccessDeniedException(AccessDeniedException ex, HttpServletRequest request) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.FORBIDDEN.value(),
+                ex.getMessage(),
+                request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
+    }
+
+    /**
+     * Обрабатывает {@link PreconditionFailedException}, когда версия из {@code If-Match}
+     * не совпадает с текущей версией ресурса.
+     *
+     * @param ex      перехваченное исключение {@code PreconditionFailedException}.
+     * @param request объект запроса.
+     * @return {@link ResponseEntity} со статусом 412 (Precondition Failed).
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponseDto> handlePreconditionFailed(PreconditionFailedException ex, HttpServletRequest request) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                ex.getMessage(),
+                request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Обрабатывает {@link OptimisticLockingFailureException}, когда ресурс был изменен
+     * параллельным запросом между чтением и записью.
+     *
+     * @param ex      перехваченное исключение {@code OptimisticLockingFailureException}.
+     * @param request объект запроса.
+     * @return {@link ResponseEntity} со статусом 409 (Conflict).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        log.warn("Concurrent modification for request to {}: {}", request.getRequestURI(), ex.getMessage());
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.CONFLICT.value(),
+                "The resource was modified concurrently. Please reload it and retry.",
+                request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Обрабатывает {@link TokenRefreshException} при ошибках с refresh-токеном
      * (например, если он истек или не найден).
@@ -102,6 +163,47 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
     }
 
+    /**
+     * Обрабатывает {@link PasswordHashingOverloadedException}, когда очередь хеширования
+     * паролей переполнена. Клиенту возвращается заголовок {@code Retry-After}.
+     *
+     * @param ex      перехваченное исключение {@code PasswordHashingOverloadedException}.
+     * @param request объект запроса.
+     * @return {@link ResponseEntity} со статусом 503 (Service Unavailable).
+     */
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<ErrorResponseDto> handlePasswordHashingOverloaded(PasswordHashingOverloadedException ex, HttpServletRequest request) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    /**
+     * Обрабатывает {@link RateLimitExceededException}, когда для логина превышен лимит попыток входа.
+     *
+     * @param ex      перехваченное исключение {@code RateLimitExceededException}.
+     * @param request объект запроса.
+     * @return {@link ResponseEntity} со статусом 429 (Too Many Requests).
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponseDto> handleRateLimitExceeded(RateLimitExceededException ex, HttpServletRequest request) {
+        ErrorResponseDto errorResponse = new ErrorResponseDto(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                ex.getMessage(),
+                request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     /**
      * Обрабатывает все непредвиденные исключения как последняя линия защиты.
      * Гарантирует возврат стандартизированного JSON-ответа со статусом 500.
@@ -0,0 +1,16 @@
+package com.example.user_management_api.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PasswordHashingOverloadedException(long retryAfterSeconds) {
+        super("The server is busy processing credentials. Please retry later.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
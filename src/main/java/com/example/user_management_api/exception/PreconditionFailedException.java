@@ -0,0 +1,14 @@
+package com.example.user_management_api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Условие запроса ({@code If-Match}) не выполнено: ресурс изменился с момента, когда клиент его прочитал.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
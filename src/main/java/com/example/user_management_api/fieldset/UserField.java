@@ -0,0 +1,87 @@
+package com.example.user_management_api.fieldset;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Поля пользователя, которые можно запросить параметром {@code fields}.
+ * Имена совпадают с полями {@code UserResponseDto}, порядок объявления - с порядком полей в ответе.
+ */
+public enum UserField {
+    ID("id", Source.USER),
+    USERNAME("username", Source.USER),
+    LAST_NAME("lastName", Source.USER_DATA),
+    FIRST_NAME("firstName", Source.USER_DATA),
+    PATRONYMIC("patronymic", Source.USER_DATA),
+    DATE_OF_BIRTH("dateOfBirth", Source.USER_DATA),
+    EMAIL("email", Source.USER),
+    PHONE_NUMBER("phoneNumber", Source.USER),
+    AVATAR_KEY("avatarKey", Source.USER_DATA),
+    ROLES("roles", Source.ROLES);
+
+    /**
+     * Откуда читается поле: от этого зависит, нужен ли join к {@code user_data} или {@code user_roles}.
+     */
+    public enum Source {
+        USER,
+        USER_DATA,
+        ROLES
+    }
+
+    private final String paramName;
+    private final Source source;
+
+    UserField(String paramName, Source source) {
+        this.paramName = paramName;
+        this.source = source;
+    }
+
+    /**
+     * @return имя поля в запросе и в JSON; совпадает с именем атрибута сущности.
+     */
+    public String getParamName() {
+        return paramName;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * @param fields значение параметра {@code fields}: имена через запятую.
+     * @return запрошенные поля в порядке объявления.
+     * @throws IllegalArgumentException если поле неизвестно или список пуст.
+     */
+    public static Set<UserField> parse(String fields) {
+        Set<UserField> result = EnumSet.noneOf(UserField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                result.add(fromParam(trimmed));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested");
+        }
+        return result;
+    }
+
+    /**
+     * @return поля через {@code +}: пригодно для ETag, где запятая разделяет значения заголовка.
+     */
+    public static String toTag(Set<UserField> fields) {
+        return fields.stream().map(UserField::getParamName).collect(Collectors.joining("+"));
+    }
+
+    private static UserField fromParam(String paramName) {
+        return Arrays.stream(values())
+                .filter(field -> field.paramName.equals(paramName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported field: " + paramName
+                        + ". Supported values: " + Arrays.stream(values())
+                        .map(UserField::getParamName)
+                        .collect(Collectors.joining(", "))));
+    }
+}
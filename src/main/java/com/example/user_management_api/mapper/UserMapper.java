@@ -44,6 +44,7 @@ public interface UserMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "roles", ignore = true)
     @Mapping(target = "userData", ignore = true)
+    @Mapping(target = "version", ignore = true)
     User toUserEntity(CreateUserRequestDto dto);
 
     /**
@@ -55,6 +56,7 @@ public interface UserMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "avatarKey", ignore = true)
+    @Mapping(target = "version", ignore = true)
     UserData toUserDataEntity(CreateUserRequestDto dto);
 
 
@@ -69,6 +71,7 @@ public interface UserMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "avatarKey", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateUserDataFromDto(UpdateUserDataRequestDto dto, @MappingTarget UserData userData);
 
     /**
@@ -8,11 +8,14 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.MapsId;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -24,6 +27,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @Entity
 @Table(name = "user_data")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-data")
 public class UserData {
     @Id
     private UUID id;
@@ -46,4 +50,11 @@ public class UserData {
 
     @Column(name = "avatar_key")
     private String avatarKey;
+
+    /**
+     * Версия строки для оптимистической блокировки и ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
@@ -0,0 +1,45 @@
+package com.example.user_management_api.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Позиция в ленте изменений пользователей: номер транзакции и id последнего выданного изменения.
+ * Клиенту передается в виде непрозрачной base64url-строки.
+ *
+ * @param changeXid номер транзакции, в которой произошло изменение.
+ * @param id        id пользователя.
+ */
+public record ChangeCursor(long changeXid, UUID id) {
+    /**
+     * Начало ленты: с него читаются все пользователи, включая удаленных.
+     */
+    public static final ChangeCursor START = new ChangeCursor(0, new UUID(0, 0));
+
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        String raw = Long.toString(changeXid) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token строка курсора от клиента.
+     * @return разобранный курсор.
+     * @throws IllegalArgumentException если курсор поврежден.
+     */
+    public static ChangeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ChangeCursor(Long.parseLong(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.user_management_api.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Позиция в упорядоченном списке пользователей: значение ключа сортировки и id последней
+ * выданной записи. Клиенту передается в виде непрозрачной base64url-строки.
+ *
+ * @param sortKey порядок сортировки, для которого выдан курсор.
+ * @param value   значение ключа сортировки последней записи (null для сортировки по id).
+ * @param id      id последней записи.
+ */
+public record KeysetCursor(UserSortKey sortKey, String value, UUID id) {
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        String raw = sortKey.name() + SEPARATOR + (value == null ? "" : value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token       строка курсора от клиента.
+     * @param expectedKey порядок сортировки текущего запроса.
+     * @return разобранный курсор.
+     * @throws IllegalArgumentException если курсор поврежден или выдан для другой сортировки.
+     */
+    public static KeysetCursor decode(String token, UserSortKey expectedKey) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            if (first < 0 || first == last) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            UserSortKey sortKey = UserSortKey.valueOf(raw.substring(0, first));
+            if (sortKey != expectedKey) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort order");
+            }
+            String value = raw.substring(first + 1, last);
+            UUID id = UUID.fromString(raw.substring(last + 1));
+            return new KeysetCursor(sortKey, sortKey == UserSortKey.ID ? null : value, id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
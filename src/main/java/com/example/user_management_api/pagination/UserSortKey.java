@@ -0,0 +1,46 @@
+package com.example.user_management_api.pagination;
+
+import java.util.Arrays;
+
+/**
+ * Поддерживаемые порядки сортировки для постраничного обхода по курсору.
+ * Каждый порядок дополняется id пользователя, чтобы ключ был уникальным,
+ * и опирается на индекс с теми же колонками.
+ */
+public enum UserSortKey {
+    /**
+     * Первичный ключ users.
+     */
+    ID("id"),
+    /**
+     * Уникальный индекс uk_users_email; email уникален, поэтому id в ключ не входит.
+     */
+    EMAIL("email"),
+    /**
+     * Индекс idx_user_data_last_name_user_id.
+     */
+    LAST_NAME("lastName");
+
+    private final String paramName;
+
+    UserSortKey(String paramName) {
+        this.paramName = paramName;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    /**
+     * @param paramName значение параметра {@code sort} из запроса.
+     * @return порядок сортировки.
+     * @throws IllegalArgumentException если порядок не поддерживается.
+     */
+    public static UserSortKey fromParam(String paramName) {
+        return Arrays.stream(values())
+                .filter(key -> key.paramName.equals(paramName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported sort: " + paramName
+                        + ". Supported values: id, email, lastName"));
+    }
+}
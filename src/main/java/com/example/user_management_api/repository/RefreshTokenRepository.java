@@ -1,14 +1,62 @@
 package com.example.user_management_api.repository;
 
 import com.example.user_management_api.model.RefreshToken;
-import com.example.user_management_api.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 @Repository
 public interface  RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
     Optional<RefreshToken> findByToken(String token);
-    void deleteByUser(User user);
+
+    /**
+     * Выдает пользователю токен одним запросом: вставляет строку или заменяет
+     * существующую по уникальному индексу на user_id.
+     * Для нативных изменяющих запросов указана затрагиваемая таблица: без этого Hibernate
+     * сбрасывает весь кэш второго уровня.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = """
+            INSERT INTO refresh_tokens (id, user_id, token, expiry_date)
+            VALUES (:id, :userId, :token, :expiryDate)
+            ON CONFLICT (user_id) DO UPDATE
+            SET token = EXCLUDED.token, expiry_date = EXCLUDED.expiry_date
+            """, nativeQuery = true)
+    void upsert(@Param("id") UUID id,
+                @Param("userId") UUID userId,
+                @Param("token") String token,
+                @Param("expiryDate") Instant expiryDate);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.token = :token")
+    void deleteByToken(@Param("token") String token);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.user.id = :userId")
+    void deleteByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Удаляет не более {@code limit} истекших токенов в отдельной транзакции,
+     * чтобы очистка не держала блокировки и не порождала всплесков WAL.
+     * @return количество удаленных строк.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (SELECT id FROM refresh_tokens WHERE expiry_date < :now LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") Instant now, @Param("limit") int limit);
 }
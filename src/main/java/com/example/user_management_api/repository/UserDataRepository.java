@@ -0,0 +1,88 @@
+package com.example.user_management_api.repository;
+
+import com.example.user_management_api.dto.UserDataResponseDto;
+import com.example.user_management_api.model.UserData;
+import com.example.user_management_api.repository.projection.RemovedAvatarRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserDataRepository extends JpaRepository<UserData, UUID> {
+    /**
+     * Читает персональные данные пользователя сразу в DTO, без загрузки сущностей.
+     * @param userId ID пользователя.
+     * @return DTO или пустой Optional, если данных нет.
+     */
+    @Query("SELECT new com.example.user_management_api.dto.UserDataResponseDto(" +
+            "ud.id, ud.firstName, ud.lastName, ud.patronymic, ud.dateOfBirth, ud.avatarKey, ud.version) " +
+            "FROM UserData ud WHERE ud.id = :userId")
+    Optional<UserDataResponseDto> findDtoByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Читает только версию персональных данных для проверки {@code If-None-Match}.
+     * @param userId ID пользователя.
+     * @return версия или пустой Optional, если данных нет.
+     */
+    @Query("SELECT ud.version FROM UserData ud WHERE ud.id = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") UUID userId);
+
+    /*
+     * Изменения ниже выполняются одним запросом UPDATE ... RETURNING. Это выборка, а не @Modifying:
+     * после @Modifying Hibernate сбрасывает регион кэша второго уровня целиком, а эти запросы
+     * меняют одну строку, поэтому ее запись из кэша вытесняет вызывающий код.
+     */
+
+    /**
+     * Обновляет переданные поля персональных данных и увеличивает версию.
+     * Поля со значением null остаются прежними.
+     * @param userId          ID пользователя.
+     * @param expectedVersion ожидаемая версия или null, если версию проверять не нужно.
+     * @return обновленные данные или пустой Optional, если данных нет или версия не совпала.
+     */
+    @Query(nativeQuery = true, value = """
+            UPDATE user_data
+            SET last_name = COALESCE(:lastName, last_name),
+                first_name = COALESCE(:firstName, first_name),
+                patronymic = COALESCE(:patronymic, patronymic),
+                date_of_birth = COALESCE(:dateOfBirth, date_of_birth),
+                version = version + 1
+            WHERE user_id = :userId AND version = COALESCE(:expectedVersion, version)
+            RETURNING *
+            """)
+    Optional<UserData> updateFields(@Param("userId") UUID userId,
+                                    @Param("lastName") String lastName,
+                                    @Param("firstName") String firstName,
+                                    @Param("patronymic") String patronymic,
+                                    @Param("dateOfBirth") LocalDate dateOfBirth,
+                                    @Param("expectedVersion") Long expectedVersion);
+
+    /**
+     * Устанавливает ключ аватара и увеличивает версию.
+     * @return ID пользователя или пустой Optional, если данных нет.
+     */
+    @Query(nativeQuery = true, value = """
+            UPDATE user_data SET avatar_key = :avatarKey, version = version + 1
+            WHERE user_id = :userId
+            RETURNING user_id
+            """)
+    Optional<UUID> updateAvatarKey(@Param("userId") UUID userId, @Param("avatarKey") String avatarKey);
+
+    /**
+     * Снимает ключ аватара и возвращает прежний. Строка блокируется в подзапросе,
+     * поэтому при конкурентной замене аватара возвращается именно тот ключ, который был снят.
+     * @return прежний ключ или пустой Optional, если данных нет.
+     */
+    @Query(nativeQuery = true, value = """
+            UPDATE user_data ud SET avatar_key = NULL, version = ud.version + 1
+            FROM (SELECT user_id, avatar_key FROM user_data WHERE user_id = :userId FOR UPDATE) previous
+            WHERE ud.user_id = previous.user_id
+            RETURNING previous.avatar_key AS "previousAvatarKey"
+            """)
+    Optional<RemovedAvatarRow> clearAvatarKey(@Param("userId") UUID userId);
+}
@@ -1,25 +1,239 @@
 package com.example.user_management_api.repository;
 
 import com.example.user_management_api.model.User;
+import com.example.user_management_api.repository.projection.UserChangeRow;
+import com.example.user_management_api.repository.projection.UserContactInfoRow;
+import com.example.user_management_api.repository.projection.UserLookupRow;
+import com.example.user_management_api.repository.projection.UserRoleRow;
+import com.example.user_management_api.repository.projection.UserUniqueKeysRow;
+import com.example.user_management_api.repository.projection.UserVersionRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 @Repository
-public interface UserRepository  extends JpaRepository<User, UUID> {
+public interface UserRepository  extends JpaRepository<User, UUID>, UserRepositoryCustom {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
 
     /**
-     * Загружает страницу пользователей, подтягивая связанные данные UserData
-     * для избежания проблемы N+1.
+     * Ищет пользователей, у которых username или email совпадает с идентификатором без учета регистра,
+     * и в том же запросе подтягивает роли. Использует функциональные индексы по lower(username) и lower(email).
+     * Может вернуть несколько записей (например, username одного пользователя совпадает с email другого).
+     * @param identifier username или email.
+     * @return подходящие пользователи с загруженными ролями.
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles " +
+            "WHERE lower(u.username) = lower(:identifier) OR lower(u.email) = lower(:identifier)")
+    List<User> findAllByUsernameOrEmailWithRoles(@Param("identifier") String identifier);
+
+    /**
+     * Выбирает одну страницу id пользователей. Лимит и сортировка применяются в SQL,
+     * потому что в запросе нет fetch join по коллекциям.
+     * @param pageable параметры пагинации.
+     * @return страница id.
+     */
+    @Query(value = "SELECT u.id FROM User u", countQuery = "SELECT count(u) FROM User u")
+    Page<UUID> findIdPage(Pageable pageable);
+
+    /**
+     * Выбирает одну страницу id пользователей без подсчета общего количества:
+     * запрашивается на одну запись больше размера страницы, чтобы определить, есть ли следующая.
      * @param pageable параметры пагинации.
-     * @return страница пользователей.
+     * @return срез id.
+     */
+    @Query("SELECT u.id FROM User u")
+    Slice<UUID> findIdSlice(Pageable pageable);
+
+    /**
+     * Читает оценку количества строк {@code users} из статистики планировщика без просмотра таблицы.
+     * @return оценка или -1, если таблица еще не анализировалась.
+     */
+    @Query(nativeQuery = true, value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('users' AS regclass)")
+    long findEstimatedCount();
+
+    /**
+     * Загружает пользователей по списку id вместе с UserData и ролями одним запросом.
+     * Порядок результата не определен.
+     * @param ids id пользователей.
+     * @return пользователи с загруженными связями.
+     */
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.userData LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<User> findAllWithDataAndRolesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Читает только колонки контактной информации, по строке на роль, без загрузки сущности.
+     * @param id ID пользователя.
+     * @return строки выборки; пустой список, если пользователь не найден.
+     */
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.phoneNumber AS phoneNumber, r AS role " +
+            "FROM User u LEFT JOIN u.roles r WHERE u.id = :id")
+    List<UserContactInfoRow> findContactInfoRowsById(@Param("id") UUID id);
+
+    /**
+     * Читает роли пользователей из user_roles без загрузки сущностей.
+     * @param ids id пользователей.
+     * @return строки (id, роль); пользователи без ролей не попадают в результат.
+     */
+    @Query("SELECT u.id AS id, r AS role FROM User u JOIN u.roles r WHERE u.id IN :ids")
+    List<UserRoleRow> findRolesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Читает пользователей вместе с UserData и ролями одним запросом без загрузки сущностей.
+     * id передаются одним параметром-массивом ({@code = ANY}), поэтому текст запроса и план
+     * не зависят от количества id, а поиск идет по первичному ключу.
+     * Порядок результата не определен.
+     * @param ids id пользователей.
+     * @return строки выборки, по одной на роль; пользователи, которых нет, не попадают в результат.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT u.id AS id, u.username AS username, u.email AS email, u.phone_number AS "phoneNumber",
+                   ud.last_name AS "lastName", ud.first_name AS "firstName", ud.patronymic AS patronymic,
+                   ud.date_of_birth AS "dateOfBirth", ud.avatar_key AS "avatarKey", r.role AS role
+            FROM users u
+            LEFT JOIN user_data ud ON ud.user_id = u.id
+            LEFT JOIN user_roles r ON r.user_id = u.id
+            WHERE u.id = ANY(:ids)
+            """)
+    List<UserLookupRow> findLookupRowsByIdIn(@Param("ids") UUID[] ids);
+
+    /**
+     * Читает ленту изменений пользователей после позиции {@code (afterXid, afterId)} по индексу
+     * {@code (change_xid, user_id)}. Изменения транзакций, которые на момент запроса могли еще не завершиться
+     * ({@code change_xid} не меньше xmin снимка), не выдаются: иначе курсор ушел бы вперед и пропустил
+     * изменение, закоммиченное позже. Обратная сторона: пока в БД открыта любая транзакция, получившая
+     * номер, изменения транзакций, начатых после нее, не выдаются, и лента стоит до ее завершения.
+     * @param afterXid номер транзакции из курсора.
+     * @param afterId  id пользователя из курсора.
+     * @param limit    максимальное количество строк.
+     * @return изменения в порядке {@code (change_xid, user_id)}.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT c.user_id AS id, c.change_xid AS "changeXid", c.changed_at AS "changedAt", c.deleted AS deleted
+            FROM user_changes c
+            WHERE (c.change_xid, c.user_id) > (:afterXid, :afterId)
+              AND c.change_xid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT)
+            ORDER BY c.change_xid, c.user_id
+            LIMIT :limit
+            """)
+    List<UserChangeRow> findChangesAfter(@Param("afterXid") long afterXid,
+                                         @Param("afterId") UUID afterId,
+                                         @Param("limit") int limit);
+
+    /**
+     * Читает только версии пользователя и его UserData для проверки {@code If-None-Match}.
+     * @param id ID пользователя.
+     * @return версии или пустой Optional, если пользователь не найден.
+     */
+    @Query("SELECT u.version AS userVersion, ud.version AS dataVersion FROM User u LEFT JOIN u.userData ud WHERE u.id = :id")
+    Optional<UserVersionRow> findVersionsById(@Param("id") UUID id);
+
+    /**
+     * Читает только версию учетных данных (claim {@code ver}) для проверки access-токена.
+     * @param id ID пользователя.
+     * @return версия или пустой Optional, если пользователь не найден.
+     */
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
+    /**
+     * Находит уже занятые username, email и телефоны среди переданных значений одним запросом.
+     */
+    @Query("SELECT u.username AS username, u.email AS email, u.phoneNumber AS phoneNumber FROM User u " +
+            "WHERE u.username IN :usernames OR u.email IN :emails OR u.phoneNumber IN :phoneNumbers")
+    List<UserUniqueKeysRow> findExistingUniqueKeys(@Param("usernames") Collection<String> usernames,
+                                                   @Param("emails") Collection<String> emails,
+                                                   @Param("phoneNumbers") Collection<String> phoneNumbers);
+
+    /**
+     * Ищет пользователей по префиксу или нечеткому (триграммному) совпадению с фамилией, именем, отчеством,
+     * email или телефоном. Для каждого поля префиксные и нечеткие кандидаты выбираются отдельно по его
+     * GiST-индексу {@code gist_trgm_ops} в порядке расстояния ({@code <->}) до строки поиска, и из каждой
+     * выборки берется не больше {@code candidates} ближайших строк. Поэтому время запроса не зависит
+     * от размера таблицы, а лимит отсекает наименее похожие совпадения, а не случайные.
+     * Совпадение по префиксу ранжируется выше нечеткого, внутри групп — по {@code similarity}.
+     * @param term       строка поиска в нижнем регистре.
+     * @param prefix     LIKE-шаблон префикса (экранированный {@code term} и {@code %}).
+     * @param candidates лимит кандидатов на каждую выборку.
+     * @param limit      максимальное количество результатов.
+     * @return id найденных пользователей в порядке убывания релевантности.
      */
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.userData")
-    Page<User> findAllWithData(Pageable pageable);
+    @Query(nativeQuery = true, value = """
+            SELECT c.id FROM (
+                (SELECT ud.user_id AS id, 1 + similarity(lower(ud.last_name), :term) AS score
+                 FROM user_data ud
+                 WHERE lower(ud.last_name) LIKE :prefix
+                 ORDER BY lower(ud.last_name) <-> :term
+                 LIMIT :candidates)
+                UNION ALL
+                (SELECT ud.user_id, similarity(lower(ud.last_name), :term)
+                 FROM user_data ud
+                 WHERE lower(ud.last_name) % :term
+                 ORDER BY lower(ud.last_name) <-> :term
+                 LIMIT :candidates)
+                UNION ALL
+                (SELECT ud.user_id, 1 + similarity(lower(ud.first_name), :term)
+                 FROM user_data ud
+                 WHERE lower(ud.first_name) LIKE :prefix
+                 ORDER BY lower(ud.first_name) <-> :term
+                 LIMIT :candidates)
+                UNION ALL
+                (SELECT ud.user_id, similarity(lower(ud.first_name), :term)
+                 FROM user_data ud
+                 WHERE lower(ud.first_name) % :term
+                 ORDER BY lower(ud.first_name) <-> :term
+                 LIMIT :candidates)
+                UNION ALL
+                (SELECT ud.user_id, 1 + similarity(lower(ud.patronymic), :term)
+                 FROM user_data ud
+                 WHERE lower(ud.patronymic) LIKE :prefix
+                 ORDER BY lower(ud.patronymic) <-> :term
+                 LIMIT :candidates)
+                UNION ALL
+                (SELECT ud.user_id, similarity(lower(ud.patronymic), :term)
+                 FROM user_data ud
+                 WHERE lower(ud.patronymic) % :term
+                 ORDER BY lower(ud.patronymic) <-> :term
+                 LIMIT :candidates)
+                UNION ALL
+                (SELECT u.id, 1 + similarity(lower(u.email), :term)
+                 FROM users u
+                 WHERE lower(u.email) LIKE :prefix
+                 ORDER BY lower(u.email) <-> :term
+                 LIMIT :candidates)
+                UNION ALL
+                (SELECT u.id, similarity(lower(u.email), :term)
+                 FROM users u
+                 WHERE lower(u.email) % :term
+                 ORDER BY lower(u.email) <-> :term
+                 LIMIT :candidates)
+                UNION ALL
+                (SELECT u.id, 1 + similarity(u.phone_number, :term)
+                 FROM users u
+                 WHERE u.phone_number LIKE :prefix
+                 ORDER BY u.phone_number <-> :term
+                 LIMIT :candidates)
+                UNION ALL
+                (SELECT u.id, similarity(u.phone_number, :term)
+                 FROM users u
+                 WHERE u.phone_number % :term
+                 ORDER BY u.phone_number <-> :term
+                 LIMIT :candidates)
+            ) c
+            GROUP BY c.id
+            ORDER BY max(c.score) DESC, c.id
+            LIMIT :limit
+            """)
+    List<UUID> searchIds(@Param("term") String term,
+                         @Param("prefix") String prefix,
+                         @Param("candidates") int candidates,
+                         @Param("limit") int limit);
 }
@@ -0,0 +1,41 @@
+package com.example.user_management_api.repository;
+
+import com.example.user_management_api.fieldset.UserField;
+import com.example.user_management_api.pagination.KeysetCursor;
+import com.example.user_management_api.pagination.UserSortKey;
+import jakarta.persistence.Tuple;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Запросы к пользователям, которые строятся динамически и не выражаются методами Spring Data.
+ */
+public interface UserRepositoryCustom {
+    /** Имя элемента кортежа с версией User в {@link #findFieldsByIdIn}. */
+    String USER_VERSION = "userVersion";
+
+    /** Имя элемента кортежа с версией UserData (null, если данных нет) в {@link #findFieldsByIdIn}. */
+    String DATA_VERSION = "dataVersion";
+
+    /**
+     * Выбирает id следующей порции пользователей после курсора (keyset pagination), без OFFSET и count.
+     * @param sortKey порядок сортировки.
+     * @param after   позиция последней выданной записи или null для первой страницы.
+     * @param limit   максимальное количество записей.
+     * @return id пользователей в порядке (ключ сортировки, id).
+     */
+    List<UUID> findIdPageAfter(UserSortKey sortKey, KeysetCursor after, int limit);
+
+    /**
+     * Читает только запрошенные колонки пользователей. Join к user_data добавляется,
+     * только если запрошено хотя бы одно его поле или версии; роли этим запросом не читаются.
+     * @param ids          id пользователей.
+     * @param fields       запрошенные поля.
+     * @param withVersions читать ли версии User и UserData в элементы {@link #USER_VERSION} и {@link #DATA_VERSION}.
+     * @return по кортежу на найденного пользователя: элемент {@code id} и элементы с именами полей.
+     */
+    List<Tuple> findFieldsByIdIn(Collection<UUID> ids, Set<UserField> fields, boolean withVersions);
+}
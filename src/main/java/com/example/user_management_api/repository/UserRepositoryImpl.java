@@ -0,0 +1,107 @@
+package com.example.user_management_api.repository;
+
+import com.example.user_management_api.fieldset.UserField;
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.UserData;
+import com.example.user_management_api.pagination.KeysetCursor;
+import com.example.user_management_api.pagination.UserSortKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UUID> findIdPageAfter(UserSortKey sortKey, KeysetCursor after, int limit) {
+        Query query = entityManager.createNativeQuery(keysetSql(sortKey, after != null), UUID.class)
+                .setParameter("limit", limit);
+        if (after != null) {
+            if (sortKey != UserSortKey.EMAIL) {
+                query.setParameter("id", after.id());
+            }
+            if (sortKey != UserSortKey.ID) {
+                query.setParameter("key", after.value());
+            }
+        }
+        @SuppressWarnings("unchecked")
+        List<UUID> ids = query.getResultList();
+        return ids;
+    }
+
+    /**
+     * Строит запрос страницы, условие и сортировка которого совпадают с колонками индекса порядка,
+     * поэтому страница читается диапазонным проходом по индексу без сортировки:
+     * <ul>
+     *     <li>id — {@code users_pkey};</li>
+     *     <li>email — уникальный {@code uk_users_email}, id для однозначности порядка не нужен;</li>
+     *     <li>lastName — {@code idx_user_data_last_name_user_id}, сравнение кортежей {@code (last_name, user_id)}.
+     *     Запрос читает только user_data, где {@code user_id} совпадает с id пользователя,
+     *     поэтому в обход попадают только пользователи с персональными данными.</li>
+     * </ul>
+     */
+    static String keysetSql(UserSortKey sortKey, boolean after) {
+        return switch (sortKey) {
+            case ID -> "SELECT t.id FROM users t" + (after ? " WHERE t.id > :id" : "")
+                    + " ORDER BY t.id LIMIT :limit";
+            case EMAIL -> "SELECT t.id FROM users t" + (after ? " WHERE t.email > :key" : "")
+                    + " ORDER BY t.email LIMIT :limit";
+            case LAST_NAME -> "SELECT t.user_id FROM user_data t"
+                    + (after ? " WHERE (t.last_name, t.user_id) > (:key, :id)" : "")
+                    + " ORDER BY t.last_name, t.user_id LIMIT :limit";
+        };
+    }
+
+    @Override
+    public List<Tuple> findFieldsByIdIn(Collection<UUID> ids, Set<UserField> fields, boolean withVersions) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        Join<User, UserData> userData = null;
+
+        List<Selection<?>> selections = new ArrayList<>();
+        // id нужен всегда: по нему результат раскладывается в порядке страницы и сопоставляется с ролями
+        selections.add(user.get("id").alias(UserField.ID.getParamName()));
+        for (UserField field : fields) {
+            switch (field.getSource()) {
+                case USER -> {
+                    if (field != UserField.ID) {
+                        selections.add(user.get(field.getParamName()).alias(field.getParamName()));
+                    }
+                }
+                case USER_DATA -> {
+                    if (userData == null) {
+                        userData = user.join("userData", JoinType.LEFT);
+                    }
+                    selections.add(userData.get(field.getParamName()).alias(field.getParamName()));
+                }
+                case ROLES -> {
+                    // Коллекция умножила бы строки, поэтому роли читаются отдельным запросом
+                }
+            }
+        }
+        if (withVersions) {
+            if (userData == null) {
+                userData = user.join("userData", JoinType.LEFT);
+            }
+            selections.add(user.get("version").alias(USER_VERSION));
+            selections.add(userData.get("version").alias(DATA_VERSION));
+        }
+        query.multiselect(selections).where(user.get("id").in(ids));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.user_management_api.repository.projection;
+
+/**
+ * Результат снятия аватара: ключ, который был у пользователя до обновления.
+ */
+public interface RemovedAvatarRow {
+    /**
+     * @return прежний ключ аватара или null, если аватара не было.
+     */
+    String getPreviousAvatarKey();
+}
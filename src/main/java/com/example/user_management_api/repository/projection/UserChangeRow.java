@@ -0,0 +1,20 @@
+package com.example.user_management_api.repository.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Строка ленты изменений: последнее изменение пользователя.
+ */
+public interface UserChangeRow {
+    UUID getId();
+
+    long getChangeXid();
+
+    Instant getChangedAt();
+
+    /**
+     * @return true, если пользователь удален.
+     */
+    boolean isDeleted();
+}
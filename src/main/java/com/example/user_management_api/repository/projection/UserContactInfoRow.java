@@ -0,0 +1,23 @@
+package com.example.user_management_api.repository.projection;
+
+import com.example.user_management_api.model.enums.Role;
+
+import java.util.UUID;
+
+/**
+ * Строка выборки контактной информации: по одной строке на каждую роль пользователя.
+ */
+public interface UserContactInfoRow {
+    UUID getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getPhoneNumber();
+
+    /**
+     * @return роль или null, если у пользователя нет ролей.
+     */
+    Role getRole();
+}
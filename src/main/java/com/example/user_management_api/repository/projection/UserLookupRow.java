@@ -0,0 +1,34 @@
+package com.example.user_management_api.repository.projection;
+
+import com.example.user_management_api.model.enums.Role;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Строка пакетной выборки пользователей вместе с персональными данными: по одной строке на каждую роль.
+ */
+public interface UserLookupRow {
+    UUID getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getPhoneNumber();
+
+    String getLastName();
+
+    String getFirstName();
+
+    String getPatronymic();
+
+    LocalDate getDateOfBirth();
+
+    String getAvatarKey();
+
+    /**
+     * @return роль или null, если у пользователя нет ролей.
+     */
+    Role getRole();
+}
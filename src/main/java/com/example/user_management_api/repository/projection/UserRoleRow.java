@@ -0,0 +1,14 @@
+package com.example.user_management_api.repository.projection;
+
+import com.example.user_management_api.model.enums.Role;
+
+import java.util.UUID;
+
+/**
+ * Роль пользователя: по строке на каждую пару (пользователь, роль).
+ */
+public interface UserRoleRow {
+    UUID getId();
+
+    Role getRole();
+}
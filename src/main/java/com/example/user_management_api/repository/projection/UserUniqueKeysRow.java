@@ -0,0 +1,12 @@
+package com.example.user_management_api.repository.projection;
+
+/**
+ * Уникальные ключи пользователя, по которым проверяются конфликты при массовом создании.
+ */
+public interface UserUniqueKeysRow {
+    String getUsername();
+
+    String getEmail();
+
+    String getPhoneNumber();
+}
@@ -0,0 +1,13 @@
+package com.example.user_management_api.repository.projection;
+
+/**
+ * Версии пользователя и его персональных данных для проверки {@code If-None-Match}.
+ */
+public interface UserVersionRow {
+    long getUserVersion();
+
+    /**
+     * @return версия UserData или null, если персональных данных нет.
+     */
+    Long getDataVersion();
+}
@@ -1,13 +1,20 @@
 package com.example.user_management_api.secutity.jwt;
 
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.service.TokenRevocationService;
+import com.example.user_management_api.service.TokenVersionService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,6 +24,10 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -24,6 +35,19 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenVersionService tokenVersionService;
+
+    /**
+     * Если включено, аутентификация строится только из проверенных claims токена,
+     * без загрузки пользователя из БД. Токены без claims {@code uid}/{@code roles}
+     * (выданные до появления этих claims) по-прежнему проверяются через БД.
+     * <p>
+     * Claim {@code ver} сверяется с версией из {@link TokenVersionService}: на узле, где сменили пароль,
+     * прежние access-токены отклоняются сразу, на остальных — не позже времени жизни кэша версий.
+     */
+    @Value("${app.jwt.stateless-auth:true}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -31,16 +55,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+            JwtVerificationResult verification = jwt != null ? jwtUtils.verify(jwt) : null;
+            if (verification != null && verification.isValid() && !isRevoked(verification.claims())) {
+                Claims claims = verification.claims();
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                UsernamePasswordAuthenticationToken authentication = statelessAuth && hasPrincipalClaims(claims)
+                        ? authenticationFromClaims(claims)
+                        : authenticationFromDatabase(claims);
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (authentication != null) {
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
@@ -49,6 +75,56 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && tokenRevocationService.isRevoked(jti)) {
+            log.warn("Rejected revoked token {} for user: {}", jti, claims.getSubject());
+            return true;
+        }
+        return false;
+    }
+
+    private boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(JwtUtils.CLAIM_USER_ID) != null && claims.get(JwtUtils.CLAIM_ROLES) != null;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticationFromClaims(Claims claims) {
+        UUID userId = UUID.fromString(claims.get(JwtUtils.CLAIM_USER_ID, String.class));
+        OptionalInt currentVersion = tokenVersionService.getTokenVersion(userId);
+        if (currentVersion.isEmpty()) {
+            log.warn("Rejected token of missing user: {}", claims.getSubject());
+            return null;
+        }
+        if (claims.get(JwtUtils.CLAIM_TOKEN_VERSION) != null && currentVersion.getAsInt() != getTokenVersion(claims)) {
+            log.warn("Rejected token with outdated version for user: {}", claims.getSubject());
+            return null;
+        }
+        JwtPrincipal principal = new JwtPrincipal(userId, claims.getSubject(), getTokenVersion(claims));
+
+        List<?> roles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+        Collection<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    private UsernamePasswordAuthenticationToken authenticationFromDatabase(Claims claims) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (userDetails instanceof User user
+                && claims.get(JwtUtils.CLAIM_TOKEN_VERSION) != null
+                && user.getTokenVersion() != getTokenVersion(claims)) {
+            log.warn("Rejected token with outdated version for user: {}", user.getUsername());
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private int getTokenVersion(Claims claims) {
+        Integer version = claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Integer.class);
+        return version != null ? version : 0;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
@@ -0,0 +1,22 @@
+package com.example.user_management_api.secutity.jwt;
+
+import java.util.UUID;
+
+/**
+ * Легковесный principal, восстановленный из проверенных claims access-токена.
+ * Используется в stateless-режиме {@link JwtAuthFilter}, когда обращение к БД не требуется.
+ *
+ * @param id           ID пользователя (claim {@code uid}).
+ * @param username     имя пользователя (subject токена).
+ * @param tokenVersion версия учетных данных на момент выдачи токена (claim {@code ver}).
+ */
+public record JwtPrincipal(
+        UUID id,
+        String username,
+        int tokenVersion
+) {
+    @Override
+    public String toString() {
+        return username;
+    }
+}
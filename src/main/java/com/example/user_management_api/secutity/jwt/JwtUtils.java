@@ -1,44 +1,180 @@
 package com.example.user_management_api.secutity.jwt;
 
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.secutity.jwt.JwtVerificationResult.FailureReason;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @Component
 public class JwtUtils {
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${app.jwt.secret}")
     private String jwtSecretString;
     @Value("${app.jwt.expirationMs}")
     private Long accessTokenDurationMs;
+    /**
+     * Идентификатор (kid) текущего ключа подписи.
+     */
+    @Value("${app.jwt.key-id:default}")
+    private String signingKeyId = "default";
+    /**
+     * Ключи, которые еще принимаются при проверке, но уже не используются для подписи.
+     * Формат: {@code kid1:base64secret1,kid2:base64secret2}.
+     */
+    @Value("${app.jwt.previous-keys:}")
+    private String previousKeys = "";
+
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private JwtParser jwtParser;
+
+    /**
+     * Один раз декодирует все ключи и собирает потокобезопасный парсер,
+     * который выбирает ключ проверки по заголовку {@code kid}.
+     */
+    @PostConstruct
+    void init() {
+        Map<String, SecretKey> keys = new HashMap<>();
+        if (StringUtils.hasText(previousKeys)) {
+            for (String entry : previousKeys.split(",")) {
+                String[] kidAndSecret = entry.trim().split(":", 2);
+                if (kidAndSecret.length != 2) {
+                    throw new IllegalStateException("Invalid app.jwt.previous-keys entry, expected kid:secret");
+                }
+                keys.put(kidAndSecret[0], decodeKey(kidAndSecret[1]));
+            }
+        }
+        signingKey = decodeKey(jwtSecretString);
+        keys.put(signingKeyId, signingKey);
+        verificationKeys = Map.copyOf(keys);
 
+        jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String keyId = header.getKeyId();
+                        // Токены, выданные до появления kid, подписаны текущим ключом
+                        if (keyId == null) {
+                            return signingKey;
+                        }
+                        SecretKey key = verificationKeys.get(keyId);
+                        if (key == null) {
+                            throw new UnknownKeyIdException(keyId);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        log.info("JWT verifier initialized with key ids: {}, signing key id: '{}'", verificationKeys.keySet(), signingKeyId);
+    }
+
+    /**
+     * Генерирует access-токен. Помимо subject в токен записываются ID пользователя,
+     * его роли и версия учетных данных, чтобы фильтр мог аутентифицировать запрос
+     * без обращения к БД.
+     *
+     * @param authentication результат успешной аутентификации.
+     * @return подписанный JWT.
+     */
     public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        if (userPrincipal instanceof User user) {
+            return generateJwtToken(user.getId(), user.getUsername(), roles, user.getTokenVersion());
+        }
+        return buildToken(Jwts.builder().subject(userPrincipal.getUsername()).claim(CLAIM_ROLES, roles));
+    }
 
-        return Jwts.builder()
-                .subject(userPrincipal.getUsername())
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + accessTokenDurationMs))
-                .signWith(getSignInKey())
-                .compact();
+    /**
+     * Генерирует access-токен по уже известным данным пользователя, без загрузки сущности.
+     *
+     * @param userId       ID пользователя.
+     * @param username     имя пользователя (subject).
+     * @param roles        роли пользователя.
+     * @param tokenVersion версия учетных данных.
+     * @return подписанный JWT.
+     */
+    public String generateJwtToken(UUID userId, String username, Collection<String> roles, int tokenVersion) {
+        return buildToken(Jwts.builder()
+                .subject(username)
+                .claim(CLAIM_ROLES, List.copyOf(roles))
+                .claim(CLAIM_USER_ID, userId.toString())
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion));
     }
 
+    private String buildToken(JwtBuilder builder) {
+        Date now = new Date();
+        return builder
+                .header().keyId(signingKeyId).and()
+                .id(UUID.randomUUID().toString())
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + accessTokenDurationMs))
+                .signWith(signingKey)
+                .compact();
+    }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecretString);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Разбирает и проверяет токен за один проход.
+     *
+     * @param token строка JWT.
+     * @return claims валидного токена либо причина отказа.
+     */
+    public JwtVerificationResult verify(String token) {
+        try {
+            return JwtVerificationResult.valid(jwtParser.parseSignedClaims(token).getPayload());
+        } catch (ExpiredJwtException exception) {
+            log.debug("JWT expired: {}", exception.getMessage());
+            return JwtVerificationResult.failed(FailureReason.EXPIRED);
+        } catch (UnknownKeyIdException exception) {
+            log.warn("JWT signed with unknown key: {}", exception.getMessage());
+            return JwtVerificationResult.failed(FailureReason.UNKNOWN_KEY);
+        } catch (UnsupportedJwtException exception) {
+            log.warn("Unsupported JWT: {}", exception.getMessage());
+            return JwtVerificationResult.failed(FailureReason.UNSUPPORTED);
+        } catch (MalformedJwtException exception) {
+            log.warn("Malformed JWT: {}", exception.getMessage());
+            return JwtVerificationResult.failed(FailureReason.MALFORMED);
+        } catch (SecurityException exception) {
+            log.warn("Invalid JWT signature: {}", exception.getMessage());
+            return JwtVerificationResult.failed(FailureReason.INVALID_SIGNATURE);
+        } catch (JwtException | IllegalArgumentException exception) {
+            log.warn("Invalid JWT: {}", exception.getMessage());
+            return JwtVerificationResult.failed(FailureReason.INVALID);
+        }
     }
 
     public String getUsernameFromJwtToken(String token) {
@@ -46,43 +182,28 @@ public class JwtUtils {
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return getClaims(token).getSubject();
+    }
 
-        return claims.getSubject();
+    public Claims getClaims(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
 
+    public boolean validateJwtToken(String token) {
+        return verify(token).isValid();
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private static SecretKey decodeKey(String base64Secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(base64Secret.trim());
+        return Keys.hmacShaKeyFor(keyBytes);
     }
 
-    public boolean validateJwtToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSignInKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return true;
-        } catch (ExpiredJwtException expiredJwtException) {
-            log.error("ExpiredJwtException", expiredJwtException);
-        } catch (UnsupportedJwtException exception) {
-            log.error("UnsupportedJwtException", exception);
-        } catch (MalformedJwtException exception) {
-            log.error("MalformedJwtException", exception);
-        } catch (SecurityException exception) {
-            log.error("SecurityException", exception);
-        } catch (Exception exception) {
-            log.error("Invalid token", exception);
+    /**
+     * Токен подписан ключом, идентификатор которого не входит в список активных.
+     */
+    private static final class UnknownKeyIdException extends JwtException {
+        private UnknownKeyIdException(String keyId) {
+            super("Unknown key id: " + keyId);
         }
-        return false;
     }
 }
@@ -0,0 +1,36 @@
+package com.example.user_management_api.secutity.jwt;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Результат однократного разбора и проверки JWT.
+ * Содержит либо claims валидного токена, либо причину отказа.
+ *
+ * @param claims        claims токена; {@code null}, если токен не прошел проверку.
+ * @param failureReason причина отказа; {@code null} для валидного токена.
+ */
+public record JwtVerificationResult(
+        Claims claims,
+        FailureReason failureReason
+) {
+    public enum FailureReason {
+        EXPIRED,
+        MALFORMED,
+        UNSUPPORTED,
+        INVALID_SIGNATURE,
+        UNKNOWN_KEY,
+        INVALID
+    }
+
+    public static JwtVerificationResult valid(Claims claims) {
+        return new JwtVerificationResult(claims, null);
+    }
+
+    public static JwtVerificationResult failed(FailureReason reason) {
+        return new JwtVerificationResult(null, reason);
+    }
+
+    public boolean isValid() {
+        return claims != null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.user_management_api.secutity.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничивает частоту запросов с одного IP по правилам {@code app.rate-limit.rules}.
+ * Защищает ресурсы сервера (прежде всего BCrypt), а не является средством безопасности:
+ * IP берется из {@link HttpServletRequest#getRemoteAddr()}, за прокси нужно включить
+ * {@code server.forward-headers-strategy}.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    /**
+     * Тело ответа 429 собирается один раз, отказ не создает объектов и не сериализует JSON.
+     */
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"statusCode\":429,\"message\":\"Too many requests. Please retry later.\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final List<RateLimitProperties.Rule> rules;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Counter rejectedCounter;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.rules = List.copyOf(properties.getRules());
+        this.rejectedCounter = Counter.builder("rate.limit.rejected")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (properties.isEnabled()) {
+            int ruleIndex = findRule(request);
+            if (ruleIndex >= 0) {
+                String key = ruleIndex + ":" + request.getRemoteAddr();
+                long waitNanos = rateLimiter.tryAcquire(key, rules.get(ruleIndex));
+                if (waitNanos > 0) {
+                    rejectedCounter.increment();
+                    log.debug("Rate limit exceeded for {} on {}", request.getRemoteAddr(), request.getRequestURI());
+                    reject(response, waitNanos);
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private int findRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitProperties.Rule rule = rules.get(i);
+            if ((!StringUtils.hasText(rule.getMethod()) || rule.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(rule.getPattern(), path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (TimeUnit.NANOSECONDS.toMillis(waitNanos) + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+        response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.user_management_api.secutity.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки ограничения частоты запросов ({@code app.rate-limit.*}).
+ * Лимит по IP задается правилами для маршрутов, срабатывает первое подходящее правило.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    /**
+     * Правила для маршрутов; проверяются по порядку.
+     */
+    private List<Rule> rules = new ArrayList<>();
+    /**
+     * Лимит попыток входа на один логин (username или email), независимо от IP.
+     */
+    private Limit identifier = new Limit();
+    private long idleEvictionIntervalMs = 60000;
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private long permitsPerMinute = 10;
+        private int burst = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class Rule extends Limit {
+        /**
+         * HTTP-метод; пусто - любой.
+         */
+        private String method;
+        /**
+         * Ant-шаблон пути, например {@code /api/v1/users/**}.
+         */
+        private String pattern;
+    }
+}
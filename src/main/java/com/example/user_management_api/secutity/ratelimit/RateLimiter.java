@@ -0,0 +1,71 @@
+package com.example.user_management_api.secutity.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Набор token bucket'ов без блокировок.
+ * <p>
+ * Каждый bucket — один {@link AtomicLong} с теоретическим временем следующего разрешения (GCRA):
+ * запрос сдвигает его на интервал между разрешениями одной операцией CAS и отклоняется,
+ * если время ушло вперед дальше, чем позволяет burst. Это эквивалентно классическому token bucket,
+ * но не требует отдельного поля с количеством токенов и блокировки. Карта bucket'ов —
+ * {@link ConcurrentHashMap}, то есть уже разбита на независимые сегменты.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(MeterRegistry meterRegistry) {
+        Gauge.builder("rate.limit.buckets", buckets, ConcurrentHashMap::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Пытается взять разрешение из bucket'а {@code key}.
+     *
+     * @param key   ключ bucket'а (правило + клиент).
+     * @param limit лимит для этого bucket'а.
+     * @return 0, если запрос разрешен, иначе сколько наносекунд ждать до следующего разрешения.
+     */
+    public long tryAcquire(String key, RateLimitProperties.Limit limit) {
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, limit.getPermitsPerMinute());
+        long toleranceNanos = intervalNanos * Math.max(1, limit.getBurst());
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long theoreticalArrival = bucket.get();
+            long next = (theoreticalArrival - now > 0 ? theoreticalArrival : now) + intervalNanos;
+            if (next - now > toleranceNanos) {
+                return next - now - toleranceNanos;
+            }
+            if (bucket.compareAndSet(theoreticalArrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Удаляет bucket'ы, которые полностью восстановились: их состояние не отличается от нового bucket'а,
+     * поэтому удаление не меняет поведение лимита.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.idle-eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        log.debug("Evicted {} idle rate limit buckets", before - buckets.size());
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
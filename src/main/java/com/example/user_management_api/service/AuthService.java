@@ -20,4 +20,11 @@ public interface AuthService {
      * @return DTO с новой парой токенов.
      */
     TokenRefreshResponse refreshToken(TokenRefreshRequest request);
+
+    /**
+     * Завершает сессию: отзывает access-токен и удаляет refresh-токен пользователя.
+     * Невалидный или уже истекший токен игнорируется.
+     * @param accessToken access-токен из заголовка Authorization.
+     */
+    void logout(String accessToken);
 }
@@ -0,0 +1,38 @@
+package com.example.user_management_api.service;
+
+import java.util.List;
+
+/**
+ * Сервис хеширования паролей.
+ * Выполняет BCrypt на выделенном пуле потоков с ограниченной очередью, чтобы дорогое
+ * хеширование не занимало все потоки обработки запросов.
+ */
+public interface PasswordHashingService {
+    /**
+     * Хеширует пароль.
+     * @param rawPassword пароль в открытом виде.
+     * @return хеш пароля.
+     * @throws com.example.user_management_api.exception.PasswordHashingOverloadedException
+     *         если очередь хеширования переполнена.
+     */
+    String encode(CharSequence rawPassword);
+
+    /**
+     * Хеширует несколько паролей параллельно, занимая не больше потоков, чем есть в пуле.
+     * @param rawPasswords пароли в открытом виде.
+     * @return хеши в том же порядке.
+     * @throws com.example.user_management_api.exception.PasswordHashingOverloadedException
+     *         если очередь хеширования переполнена.
+     */
+    List<String> encodeAll(List<? extends CharSequence> rawPasswords);
+
+    /**
+     * Проверяет пароль на соответствие хешу.
+     * @param rawPassword     пароль в открытом виде.
+     * @param encodedPassword сохраненный хеш.
+     * @return true, если пароль совпадает.
+     * @throws com.example.user_management_api.exception.PasswordHashingOverloadedException
+     *         если очередь хеширования переполнена.
+     */
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+}
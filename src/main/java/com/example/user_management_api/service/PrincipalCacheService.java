@@ -0,0 +1,29 @@
+package com.example.user_management_api.service;
+
+import com.example.user_management_api.model.User;
+
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш пользователей для аутентификации.
+ * Пользователь хранится под тем username или email, по которому его искали, если этот идентификатор
+ * совпал с ним точно; совпадения без учета регистра не кэшируются.
+ */
+public interface PrincipalCacheService {
+    /**
+     * Возвращает пользователя из кэша или загружает его и кладет в кэш под этим идентификатором.
+     *
+     * @param identifier username или email.
+     * @param loader     функция загрузки пользователя из БД при промахе кэша.
+     * @return найденный пользователь.
+     */
+    User getOrLoad(String identifier, Function<String, User> loader);
+
+    /**
+     * Немедленно удаляет пользователя из кэша (и повторно - после коммита текущей транзакции,
+     * чтобы параллельная загрузка не вернула в кэш устаревшие данные).
+     *
+     * @param user пользователь, чьи учетные данные или роли изменились.
+     */
+    void evict(User user);
+}
@@ -1,6 +1,7 @@
 package com.example.user_management_api.service;
 
-import com.example.user_management_api.model.RefreshToken;
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.store.StoredRefreshToken;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -12,22 +13,23 @@ public interface RefreshTokenService {
      * @param token Строка токена.
      * @return Optional, содержащий токен, если он найден; иначе — пустой.
      */
-    Optional<RefreshToken> findByToken(String token);
+    Optional<StoredRefreshToken> findByToken(String token);
 
     /**
-     * Создаёт и сохраняет новый refresh-токен для указанного пользователя.
+     * Создаёт и сохраняет новый refresh-токен для указанного пользователя,
+     * заменяя ранее выданные ему токены.
      *
-     * @param userId ID пользователя, для которого создаётся токен.
+     * @param user Пользователь, для которого создаётся токен.
      * @return Сгенерированный и сохранённый refresh-токен.
      */
-    RefreshToken createRefreshToken(UUID userId);
+    StoredRefreshToken createRefreshToken(User user);
     /**
      * Проверяет срок действия токена. Если срок истёк — выбрасывается исключение.
      *
      * @param token Refresh-токен для проверки.
      * @return Тот же токен, если он действителен.
      */
-    RefreshToken verifyExpiration(RefreshToken token);
+    StoredRefreshToken verifyExpiration(StoredRefreshToken token);
 
     /**
      * Удаляет все refresh-токен, связанный с указанным пользователем.
@@ -0,0 +1,25 @@
+package com.example.user_management_api.service;
+
+import java.time.Instant;
+
+/**
+ * Список отозванных access-токенов.
+ * <p>
+ * Отзывы хранятся в таблице revoked_tokens, а проверка выполняется по множеству в памяти
+ * и не обращается к БД. Другие узлы видят отзыв после периодической синхронизации с таблицей.
+ */
+public interface TokenRevocationService {
+    /**
+     * Отзывает токен до истечения его срока.
+     *
+     * @param jti       идентификатор токена.
+     * @param expiresAt момент истечения токена; после него запись больше не нужна.
+     */
+    void revoke(String jti, Instant expiresAt);
+
+    /**
+     * @param jti идентификатор токена.
+     * @return true, если токен отозван.
+     */
+    boolean isRevoked(String jti);
+}
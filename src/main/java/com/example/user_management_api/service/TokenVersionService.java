@@ -0,0 +1,30 @@
+package com.example.user_management_api.service;
+
+import java.util.OptionalInt;
+import java.util.UUID;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш текущих версий учетных данных (claim {@code ver}).
+ * Нужен, чтобы в stateless-режиме отклонять access-токены, выданные до смены пароля,
+ * не читая пользователя из БД на каждый запрос.
+ * <p>
+ * Узел, сменивший пароль, вытесняет версию сразу; остальные узлы видят новую версию
+ * не позже чем через время жизни записи ({@code app.security.token-version-cache.ttl}).
+ */
+public interface TokenVersionService {
+    /**
+     * Возвращает текущую версию учетных данных из кэша или читает ее из БД при промахе.
+     *
+     * @param userId ID пользователя.
+     * @return версия или пустой OptionalInt, если пользователя нет.
+     */
+    OptionalInt getTokenVersion(UUID userId);
+
+    /**
+     * Немедленно удаляет версию из кэша (и повторно - после завершения текущей транзакции,
+     * чтобы параллельное чтение не вернуло в кэш версию до коммита).
+     *
+     * @param userId ID пользователя, чья версия учетных данных изменилась или который удален.
+     */
+    void evict(UUID userId);
+}
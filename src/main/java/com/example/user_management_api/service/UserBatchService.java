@@ -0,0 +1,19 @@
+package com.example.user_management_api.service;
+
+import com.example.user_management_api.dto.BatchCreateUserResultDto;
+import com.example.user_management_api.dto.CreateUserRequestDto;
+
+import java.util.List;
+
+/**
+ * Массовые операции над пользователями.
+ */
+public interface UserBatchService {
+    /**
+     * Создает пользователей пакетом. Ошибка в одном элементе (валидация, занятый email и т.п.)
+     * не отменяет создание остальных.
+     * @param requests DTO для создания.
+     * @return результат по каждому элементу в порядке входного списка.
+     */
+    List<BatchCreateUserResultDto> createUsers(List<CreateUserRequestDto> requests);
+}
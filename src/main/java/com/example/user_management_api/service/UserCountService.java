@@ -0,0 +1,14 @@
+package com.example.user_management_api.service;
+
+/**
+ * Приблизительное количество пользователей для пагинации без точного {@code count(*)} на каждый запрос.
+ */
+public interface UserCountService {
+    /**
+     * Возвращает оценку количества пользователей по статистике PostgreSQL.
+     * Значение кэшируется и может отставать от точного на время жизни кэша и на точность статистики.
+     *
+     * @return оценка количества пользователей.
+     */
+    long estimateUserCount();
+}
@@ -0,0 +1,47 @@
+package com.example.user_management_api.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Выгрузка всех пользователей потоком, без загрузки всего списка в память.
+ */
+public interface UserExportService {
+    /**
+     * Пишет всех пользователей в поток в заданном формате.
+     * @param format формат выгрузки.
+     * @param out    поток ответа.
+     * @throws IOException при ошибке записи.
+     */
+    void exportUsers(Format format, OutputStream out) throws IOException;
+
+    enum Format {
+        /**
+         * Один JSON-объект {@code UserResponseDto} на строку.
+         */
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * @throws IllegalArgumentException если формат не поддерживается.
+         */
+        public static Format fromParam(String value) {
+            return Arrays.stream(values())
+                    .filter(format -> format.name().equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported export format: " + value
+                            + ". Supported values: ndjson, csv"));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.user_management_api.service;
+
+import com.example.user_management_api.dto.UserImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Массовый импорт пользователей из CSV (миграции из внешних систем).
+ */
+public interface UserImportService {
+    /**
+     * Импортирует пользователей из CSV в UTF-8 с заголовком. Обязательные колонки:
+     * {@code password, email, phoneNumber, firstName, lastName, dateOfBirth}; необязательные:
+     * {@code username, patronymic, roles} (роли через запятую, по умолчанию {@code ROLE_USER}).
+     * Записи с ошибками или конфликтами по username/email/телефону пропускаются и попадают в отчет.
+     * Файл переносится порциями в отдельных транзакциях: при ошибке посреди файла уже перенесенные
+     * порции остаются в БД.
+     * @param csv содержимое файла.
+     * @return итог импорта.
+     * @throws IOException              при ошибке чтения.
+     * @throws IllegalArgumentException если заголовок не содержит обязательных колонок.
+     */
+    UserImportResultDto importUsers(InputStream csv) throws IOException;
+}
@@ -2,13 +2,23 @@ package com.example.user_management_api.service;
 
 import com.example.user_management_api.dto.ChangePasswordRequestDto;
 import com.example.user_management_api.dto.CreateUserRequestDto;
+import com.example.user_management_api.dto.CursorPageResponseDto;
 import com.example.user_management_api.dto.UpdateUserDataRequestDto;
+import com.example.user_management_api.dto.UserChangesResponseDto;
 import com.example.user_management_api.dto.UserContactInfoResponseDto;
 import com.example.user_management_api.dto.UserDataResponseDto;
+import com.example.user_management_api.dto.UserLookupResponseDto;
 import com.example.user_management_api.dto.UserResponseDto;
+import com.example.user_management_api.dto.VersionedDto;
+import com.example.user_management_api.fieldset.UserField;
+import com.example.user_management_api.pagination.UserSortKey;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -30,18 +40,100 @@ public interface UserService {
      */
     UserResponseDto getUserById(UUID id);
 
+    /**
+     * Находит пользователя по ID вместе с меткой версии из уже загруженных User и UserData,
+     * без отдельного запроса версий.
+     * @param id UUID пользователя.
+     * @return DTO пользователя и метка версии в формате {@link #getUserVersionTag(UUID)}.
+     */
+    VersionedDto<UserResponseDto> getVersionedUserById(UUID id);
+
+    /**
+     * Находит пользователя по ID и возвращает только запрошенные поля с меткой версии.
+     * Из БД читаются только колонки этих полей и версии, одним запросом (роли — отдельным).
+     * @param id     UUID пользователя.
+     * @param fields запрошенные поля.
+     * @return значения полей по именам {@link UserField#getParamName()} в порядке объявления полей
+     *         и метка версии в формате {@link #getUserVersionTag(UUID)}.
+     */
+    VersionedDto<Map<String, Object>> getVersionedUserFieldsById(UUID id, Set<UserField> fields);
+
+    /**
+     * Находит пользователей по списку ID одним запросом.
+     * Повторяющиеся ID учитываются один раз.
+     * @param ids ID пользователей.
+     * @return найденные пользователи и ненайденные ID, и те и другие в порядке запроса.
+     * @throws IllegalArgumentException если ID больше допустимого.
+     */
+    UserLookupResponseDto lookupUsers(List<UUID> ids);
+
+    /**
+     * Возвращает метку версии пользователя (версии User и UserData) без загрузки данных.
+     * Метка меняется при любом изменении, видимом в {@link #getUserById(UUID)}.
+     * @param id UUID пользователя.
+     * @return метка версии для ETag.
+     */
+    String getUserVersionTag(UUID id);
+
     /**
      * Возвращает список всех пользователей.
      * @return траница (Page) с DTO пользователей и информацией о пагинации.
      */
     Page<UserResponseDto> getAllUsers(Pageable pageable);
+
+    /**
+     * Возвращает страницу пользователей без подсчета общего количества.
+     * @param pageable параметры пагинации.
+     * @return срез пользователей с признаком наличия следующей страницы.
+     */
+    Slice<UserResponseDto> getUserSlice(Pageable pageable);
+
+    /**
+     * Возвращает страницу пользователей только с запрошенными полями.
+     * @param pageable параметры пагинации.
+     * @param fields   запрошенные поля.
+     * @return страница значений полей, как в {@link #getVersionedUserFieldsById(UUID, Set)}.
+     */
+    Page<Map<String, Object>> getAllUsers(Pageable pageable, Set<UserField> fields);
+
+    /**
+     * Возвращает страницу пользователей по курсору, без OFFSET и подсчета общего количества.
+     * @param sortKey порядок сортировки.
+     * @param cursor  курсор из предыдущего ответа или null для первой страницы.
+     * @param size    размер страницы.
+     * @return страница пользователей и курсор следующей страницы.
+     */
+    CursorPageResponseDto<UserResponseDto> getUsersByCursor(UserSortKey sortKey, String cursor, int size);
+
+    /**
+     * Возвращает пользователей, измененных или удаленных после курсора. Каждый пользователь
+     * выдается один раз в текущем состоянии, поэтому объем ответа зависит от числа изменений,
+     * а не от количества пользователей. Изменения выдаются с задержкой, пока в БД открыта более
+     * ранняя транзакция: лента не обгоняет незавершенные транзакции, чтобы не пропустить их изменения.
+     * @param since курсор из предыдущего ответа или null, чтобы прочитать всех пользователей с начала.
+     * @param size  максимальное количество изменений.
+     * @return изменения и курсор для следующего запроса.
+     */
+    UserChangesResponseDto getUserChanges(String since, int size);
+
+    /**
+     * Ищет пользователей по префиксу или нечеткому совпадению с ФИО, email или телефоном.
+     * @param query строка поиска, не короче трех символов.
+     * @param limit максимальное количество результатов.
+     * @return найденные пользователи, наиболее релевантные первыми.
+     * @throws IllegalArgumentException если строка поиска короче трех символов.
+     */
+    List<UserResponseDto> searchUsers(String query, int limit);
+
     /**
      * Обновляет существующего пользователя.
      * @param id ID пользователя для обновления.
      * @param requestDto DTO с новыми данными.
-     * @return DTO с обновленными данными пользователя.
+     * @param expectedVersion версия UserData, которую видел клиент ({@code If-Match}), или null без проверки.
+     * @return DTO с обновленными данными пользователя и новой версией.
+     * @throws com.example.user_management_api.exception.PreconditionFailedException если версия не совпадает.
      */
-    UserDataResponseDto  updateUser(UUID id, UpdateUserDataRequestDto requestDto);
+    UserDataResponseDto  updateUser(UUID id, UpdateUserDataRequestDto requestDto, Long expectedVersion);
 
     /**
      * Удаляет пользователя по его ID.
@@ -71,6 +163,13 @@ public interface UserService {
      */
     UserDataResponseDto getUserData(UUID id);
 
+    /**
+     * Возвращает версию персональных данных пользователя без загрузки самих данных.
+     * @param id ID пользователя.
+     * @return версия UserData.
+     */
+    long getUserDataVersion(UUID id);
+
     /**
      * Устанавливает или обновляет ключ аватара для пользователя.
      * @param userId ID пользователя.
@@ -4,14 +4,20 @@ import com.example.user_management_api.dto.auth.JwtResponse;
 import com.example.user_management_api.dto.auth.LoginRequest;
 import com.example.user_management_api.dto.auth.TokenRefreshRequest;
 import com.example.user_management_api.dto.auth.TokenRefreshResponse;
+import com.example.user_management_api.exception.RateLimitExceededException;
 import com.example.user_management_api.exception.TokenRefreshException;
-import com.example.user_management_api.model.RefreshToken;
 import com.example.user_management_api.model.User;
 import com.example.user_management_api.secutity.jwt.JwtUtils;
+import com.example.user_management_api.secutity.jwt.JwtVerificationResult;
+import com.example.user_management_api.secutity.ratelimit.RateLimitProperties;
+import com.example.user_management_api.secutity.ratelimit.RateLimiter;
 import com.example.user_management_api.service.AuthService;
 import com.example.user_management_api.service.RefreshTokenService;
+import com.example.user_management_api.service.TokenRevocationService;
+import com.example.user_management_api.store.StoredRefreshToken;
 import org.springframework.security.core.GrantedAuthority;
 
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,6 +26,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,16 +37,20 @@ public class AuthServiceImpl implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
     private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
 
     @Override
     public JwtResponse loginUser(LoginRequest loginRequest) {
+        checkIdentifierRateLimit(loginRequest.identifier());
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.identifier(), loginRequest.password()));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         User userDetails = (User) authentication.getPrincipal();
         String jwt = jwtUtils.generateJwtToken(authentication);
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(userDetails.getId());
+        StoredRefreshToken refreshToken = refreshTokenService.createRefreshToken(userDetails);
 
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
@@ -45,7 +58,7 @@ public class AuthServiceImpl implements AuthService {
 
         return new JwtResponse(
                 jwt,
-                refreshToken.getToken(),
+                refreshToken.token(),
                 userDetails.getId(),
                 userDetails.getUsername(),
                 userDetails.getEmail(),
@@ -57,13 +70,45 @@ public class AuthServiceImpl implements AuthService {
         String requestRefreshToken = request.refreshToken();
         return refreshTokenService.findByToken(requestRefreshToken)
                 .map(refreshTokenService::verifyExpiration)
-                .map(RefreshToken::getUser)
-                .map(user -> {
-                    Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-                    String token = jwtUtils.generateJwtToken(authentication);
+                .map(refreshToken -> {
+                    // Access-токен выпускается по снимку пользователя из хранилища, без загрузки сущности
+                    List<String> roles = refreshToken.roles().stream().map(Enum::name).toList();
+                    String token = jwtUtils.generateJwtToken(refreshToken.userId(), refreshToken.username(),
+                            roles, refreshToken.tokenVersion());
                     // Важно: возвращаем новый access token, но старый refresh token
                     return new TokenRefreshResponse(token, requestRefreshToken);
                 })
                 .orElseThrow(() -> new TokenRefreshException(requestRefreshToken, "Refresh token is not in database!"));
     }
+
+    @Override
+    public void logout(String accessToken) {
+        JwtVerificationResult verification = jwtUtils.verify(accessToken);
+        if (!verification.isValid()) {
+            return;
+        }
+        Claims claims = verification.claims();
+        if (claims.getId() != null) {
+            tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+        }
+        String userId = claims.get(JwtUtils.CLAIM_USER_ID, String.class);
+        if (userId != null) {
+            refreshTokenService.deleteByUserId(UUID.fromString(userId));
+        }
+    }
+
+    /**
+     * Ограничивает число попыток входа на один логин, чтобы перебор с разных IP
+     * не нагружал BCrypt сверх лимита.
+     */
+    private void checkIdentifierRateLimit(String identifier) {
+        if (!rateLimitProperties.isEnabled() || identifier == null) {
+            return;
+        }
+        long waitNanos = rateLimiter.tryAcquire("identifier:" + identifier.toLowerCase(Locale.ROOT),
+                rateLimitProperties.getIdentifier());
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+    }
 }
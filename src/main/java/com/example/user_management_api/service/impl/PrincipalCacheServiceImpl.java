@@ -0,0 +1,76 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.service.PrincipalCacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class PrincipalCacheServiceImpl implements PrincipalCacheService {
+    private final Cache<String, User> cache;
+
+    public PrincipalCacheServiceImpl(@Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                                     @Value("${app.security.principal-cache.ttl:5m}") Duration ttl,
+                                     MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size в /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principalCache");
+    }
+
+    @Override
+    public User getOrLoad(String identifier, Function<String, User> loader) {
+        User cached = cache.getIfPresent(identifier);
+        if (cached != null) {
+            return cached;
+        }
+        User loaded = loader.apply(identifier);
+        // username и email уникальны только с учетом регистра: пользователь, найденный без учета регистра,
+        // может быть одним из нескольких, а другой ключ может принадлежать другому пользователю
+        // (username одного совпадает с email другого). Поэтому кэшируется только точное совпадение
+        // и только под тем идентификатором, по которому искали.
+        if (identifier.equals(loaded.getUsername()) || identifier.equals(loaded.getEmail())) {
+            cache.put(identifier, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void evict(User user) {
+        evictKeys(user.getUsername(), user.getEmail());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            String username = user.getUsername();
+            String email = user.getEmail();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictKeys(username, email);
+                }
+            });
+        }
+    }
+
+    private void evictKeys(String username, String email) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+        if (email != null) {
+            cache.invalidate(email);
+        }
+        log.debug("Evicted principal cache entries for user: {}", username != null ? username : email);
+    }
+}
@@ -1,19 +1,17 @@
 package com.example.user_management_api.service.impl;
 
 import com.example.user_management_api.exception.TokenRefreshException;
-import com.example.user_management_api.exception.UserNotFoundException;
-import com.example.user_management_api.model.RefreshToken;
 import com.example.user_management_api.model.User;
-import com.example.user_management_api.repository.RefreshTokenRepository;
-import com.example.user_management_api.repository.UserRepository;
 import com.example.user_management_api.service.RefreshTokenService;
+import com.example.user_management_api.store.RefreshTokenStore;
+import com.example.user_management_api.store.StoredRefreshToken;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -22,44 +20,37 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     @Value("${app.jwt.refreshExpirationMs}") // Новое свойство
     private Long refreshTokenDurationMs;
 
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
+    private final RefreshTokenStore refreshTokenStore;
 
     @Override
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    public Optional<StoredRefreshToken> findByToken(String token) {
+        return refreshTokenStore.findByToken(token);
     }
 
     @Override
-    @Transactional
-    public RefreshToken createRefreshToken(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-
-        refreshTokenRepository.deleteByUser(user);
-
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
-        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        refreshToken.setToken(UUID.randomUUID().toString());
-
-        return refreshTokenRepository.save(refreshToken);
+    public StoredRefreshToken createRefreshToken(User user) {
+        StoredRefreshToken refreshToken = new StoredRefreshToken(
+                UUID.randomUUID().toString(),
+                user.getId(),
+                user.getUsername(),
+                Set.copyOf(user.getRoles()),
+                user.getTokenVersion(),
+                Instant.now().plusMillis(refreshTokenDurationMs));
+        refreshTokenStore.save(refreshToken);
+        return refreshToken;
     }
 
     @Override
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.getExpiryDate().compareTo(Instant.now()) < 0) {
-            refreshTokenRepository.delete(token);
-            throw new TokenRefreshException(token.getToken(), "Refresh token was expired. Please make a new signin request");
+    public StoredRefreshToken verifyExpiration(StoredRefreshToken token) {
+        if (token.isExpired(Instant.now())) {
+            refreshTokenStore.delete(token.token());
+            throw new TokenRefreshException(token.token(), "Refresh token was expired. Please make a new signin request");
         }
         return token;
     }
 
     @Override
-    @Transactional
     public void deleteByUserId(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-         refreshTokenRepository.deleteByUser(user);
+        refreshTokenStore.deleteByUserId(userId);
     }
 }
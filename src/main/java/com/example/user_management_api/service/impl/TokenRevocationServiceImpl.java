@@ -0,0 +1,69 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.model.RevokedToken;
+import com.example.user_management_api.repository.RevokedTokenRepository;
+import com.example.user_management_api.service.TokenRevocationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    /**
+     * Активные отзывы: jti и момент истечения токена. Отзывы живут не дольше access-токена,
+     * поэтому множество мало, а поиск в ConcurrentHashMap не берет блокировок.
+     */
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        Gauge.builder("jwt.revocation.entries", revoked, Map::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    @Override
+    public void revoke(String jti, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        revoked.put(jti, expiresAt);
+        log.info("Access token {} revoked until {}", jti, expiresAt);
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Подтягивает отзывы, сделанные на других узлах, и отбрасывает истекшие, чтобы память не росла.
+     * Интервал запуска — верхняя граница задержки, с которой отзыв доходит до других узлов.
+     */
+    @Scheduled(initialDelayString = "${app.jwt.revocation.refresh-interval-ms:10000}",
+            fixedDelayString = "${app.jwt.revocation.refresh-interval-ms:10000}")
+    public void refresh() {
+        Instant now = Instant.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        List<RevokedToken> active = revokedTokenRepository.findAllByExpiresAtAfter(now);
+        active.forEach(token -> revoked.put(token.getJti(), token.getExpiresAt()));
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        log.debug("Revocation list refreshed: {} active entries, {} expired purged", revoked.size(), purged);
+    }
+}
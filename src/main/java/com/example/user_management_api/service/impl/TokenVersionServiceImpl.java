@@ -0,0 +1,58 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.service.TokenVersionService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class TokenVersionServiceImpl implements TokenVersionService {
+    private final UserRepository userRepository;
+    private final Cache<UUID, Integer> cache;
+
+    public TokenVersionServiceImpl(UserRepository userRepository,
+                                   @Value("${app.security.token-version-cache.max-size:100000}") long maxSize,
+                                   @Value("${app.security.token-version-cache.ttl:30s}") Duration ttl,
+                                   MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tokenVersionCache");
+    }
+
+    @Override
+    public OptionalInt getTokenVersion(UUID userId) {
+        // Отсутствующий пользователь не кэшируется: загрузчик возвращает null
+        Integer version = cache.get(userId, id -> userRepository.findTokenVersionById(id).orElse(null));
+        return version != null ? OptionalInt.of(version) : OptionalInt.empty();
+    }
+
+    @Override
+    public void evict(UUID userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+        log.debug("Evicted token version cache entry for user: {}", userId);
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.dto.BatchCreateUserResultDto;
+import com.example.user_management_api.dto.CreateUserRequestDto;
+import com.example.user_management_api.dto.UserResponseDto;
+import com.example.user_management_api.mapper.UserMapper;
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.UserData;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.repository.projection.UserUniqueKeysRow;
+import com.example.user_management_api.service.PasswordHashingService;
+import com.example.user_management_api.service.UserBatchService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Массовое создание пользователей.
+ * <p>
+ * Элементы проверяются по отдельности (валидация, дубликаты внутри пакета и в БД), пароли хешируются
+ * параллельно на пуле хеширования, а вставка выполняется одной транзакцией с JDBC-батчингом
+ * ({@code hibernate.jdbc.batch_size}, {@code order_inserts}, {@code reWriteBatchedInserts}).
+ * Если между проверкой и вставкой кто-то успел занять email/username/телефон, пакет
+ * откатывается и вставляется поэлементно, чтобы отказ получили только конфликтующие элементы.
+ */
+@Slf4j
+@Service
+public class UserBatchServiceImpl implements UserBatchService {
+    private static final HibernateJpaDialect JPA_DIALECT = new HibernateJpaDialect();
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final PasswordHashingService passwordHashingService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final int jdbcBatchSize;
+
+    public UserBatchServiceImpl(UserRepository userRepository,
+                                UserMapper userMapper,
+                                PasswordHashingService passwordHashingService,
+                                Validator validator,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.users.batch.max-size:1000}") int maxBatchSize,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.passwordHashingService = passwordHashingService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = maxBatchSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    @Override
+    public List<BatchCreateUserResultDto> createUsers(List<CreateUserRequestDto> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size must not exceed " + maxBatchSize + " users");
+        }
+        BatchCreateUserResultDto[] results = new BatchCreateUserResultDto[requests.size()];
+
+        List<Integer> candidates = validate(requests, results);
+        candidates = rejectDuplicates(requests, candidates, results);
+        if (!candidates.isEmpty()) {
+            List<String> hashes = passwordHashingService.encodeAll(
+                    candidates.stream().map(index -> requests.get(index).password()).toList());
+            insert(requests, candidates, hashes, results);
+        }
+
+        long created = Arrays.stream(results)
+                .filter(result -> result.status() == BatchCreateUserResultDto.Status.CREATED)
+                .count();
+        log.info("Batch user creation finished: {} created, {} failed", created, results.length - created);
+        return List.of(results);
+    }
+
+    private List<Integer> validate(List<CreateUserRequestDto> requests, BatchCreateUserResultDto[] results) {
+        List<Integer> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateUserRequestDto request = requests.get(i);
+            if (request == null) {
+                results[i] = BatchCreateUserResultDto.failed(i, "Request body is empty");
+                continue;
+            }
+            Set<ConstraintViolation<CreateUserRequestDto>> violations = validator.validate(request);
+            if (violations.isEmpty()) {
+                valid.add(i);
+            } else {
+                results[i] = BatchCreateUserResultDto.failed(i, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Отклоняет элементы, чьи уникальные поля повторяются внутри пакета или уже заняты в БД.
+     */
+    private List<Integer> rejectDuplicates(List<CreateUserRequestDto> requests, List<Integer> candidates,
+                                           BatchCreateUserResultDto[] results) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phoneNumbers = new HashSet<>();
+        for (int index : candidates) {
+            CreateUserRequestDto request = requests.get(index);
+            if (request.username() != null) {
+                usernames.add(request.username());
+            }
+            emails.add(request.email());
+            phoneNumbers.add(request.phoneNumber());
+        }
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenPhoneNumbers = new HashSet<>();
+        for (UserUniqueKeysRow row : userRepository.findExistingUniqueKeys(
+                nonEmpty(usernames), nonEmpty(emails), nonEmpty(phoneNumbers))) {
+            takenUsernames.add(row.getUsername());
+            takenEmails.add(row.getEmail());
+            takenPhoneNumbers.add(row.getPhoneNumber());
+        }
+
+        List<Integer> unique = new ArrayList<>(candidates.size());
+        for (int index : candidates) {
+            CreateUserRequestDto request = requests.get(index);
+            String conflict = null;
+            if (request.username() != null && takenUsernames.contains(request.username())) {
+                conflict = "username";
+            } else if (takenEmails.contains(request.email())) {
+                conflict = "email";
+            } else if (takenPhoneNumbers.contains(request.phoneNumber())) {
+                conflict = "phoneNumber";
+            }
+            if (conflict == null) {
+                // Ключи резервируются только за принятым элементом: отклоненный не должен блокировать следующие
+                if (request.username() != null) {
+                    takenUsernames.add(request.username());
+                }
+                takenEmails.add(request.email());
+                takenPhoneNumbers.add(request.phoneNumber());
+                unique.add(index);
+            } else {
+                results[index] = BatchCreateUserResultDto.failed(index, "A user with the given " + conflict + " already exists.");
+            }
+        }
+        return unique;
+    }
+
+    private void insert(List<CreateUserRequestDto> requests, List<Integer> indexes, List<String> hashes,
+                        BatchCreateUserResultDto[] results) {
+        List<User> users = new ArrayList<>(indexes.size());
+        for (int i = 0; i < indexes.size(); i++) {
+            users.add(toEntity(requests.get(indexes.get(i)), hashes.get(i)));
+        }
+        try {
+            List<UserResponseDto> created = persistInTransaction(users);
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = BatchCreateUserResultDto.created(indexes.get(i), created.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Batch insert hit a concurrent unique conflict, falling back to per-item inserts");
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                // Сущности из откатившейся транзакции уже получили id, поэтому собираем их заново
+                User user = toEntity(requests.get(index), hashes.get(i));
+                try {
+                    UserResponseDto dto = persistInTransaction(List.of(user)).get(0);
+                    results[index] = BatchCreateUserResultDto.created(index, dto);
+                } catch (DataIntegrityViolationException itemException) {
+                    results[index] = BatchCreateUserResultDto.failed(index,
+                            "A user with the given username, email or phone number already exists.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Сохраняет пользователей в отдельной транзакции. {@code flush} вызывается напрямую через EntityManager,
+     * мимо трансляции исключений {@code @Repository}, поэтому нарушение уникальности приходит как исключение
+     * Hibernate и переводится в {@link DataIntegrityViolationException} здесь.
+     */
+    private List<UserResponseDto> persistInTransaction(List<User> users) {
+        try {
+            return transactionTemplate.execute(status -> persistAll(users));
+        } catch (DataAccessException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            DataAccessException translated = JPA_DIALECT.translateExceptionIfPossible(e);
+            throw translated != null ? translated : e;
+        }
+    }
+
+    /**
+     * Сохраняет пользователей, сбрасывая и очищая контекст каждые {@code jdbcBatchSize} записей,
+     * чтобы память не росла с размером пакета.
+     */
+    private List<UserResponseDto> persistAll(List<User> users) {
+        List<UserResponseDto> created = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            entityManager.persist(user);
+            created.add(userMapper.toUserResponseDto(user));
+            if ((i + 1) % jdbcBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return created;
+    }
+
+    private User toEntity(CreateUserRequestDto request, String passwordHash) {
+        User user = userMapper.toUserEntity(request);
+        UserData userData = userMapper.toUserDataEntity(request);
+        user.setPassword(passwordHash);
+        user.setRoles(Set.of(Role.ROLE_USER));
+        user.setUserData(userData);
+        userData.setUser(user);
+        return user;
+    }
+
+    /**
+     * {@code IN ()} недопустим в SQL, а {@code IN (NULL)} ничего не находит.
+     */
+    private static Collection<String> nonEmpty(Collection<String> values) {
+        return values.isEmpty() ? Collections.singletonList(null) : values;
+    }
+}
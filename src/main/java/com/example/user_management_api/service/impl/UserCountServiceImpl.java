@@ -0,0 +1,40 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.service.UserCountService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Оценка берется из {@code pg_class.reltuples}, которую обновляют autovacuum и ANALYZE:
+ * чтение одной строки каталога вместо полного просмотра {@code users}. Пока таблица ни разу
+ * не анализировалась, статистики нет, и выполняется точный подсчет — на такой таблице он дешевый.
+ */
+@Service
+public class UserCountServiceImpl implements UserCountService {
+    private static final String USERS = "users";
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> cache;
+
+    public UserCountServiceImpl(UserRepository userRepository,
+                                @Value("${app.users.count-estimate.ttl:1m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public long estimateUserCount() {
+        return cache.get(USERS, table -> {
+            long estimate = userRepository.findEstimatedCount();
+            return estimate >= 0 ? estimate : userRepository.count();
+        });
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.user_management_api.service.impl;
 
+import com.example.user_management_api.model.User;
 import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.service.PrincipalCacheService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,15 +11,19 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserDetailsServiceImpl implements UserDetailsService {
     private final UserRepository userRepository;
+    private final PrincipalCacheService principalCacheService;
 
     /**
      * Загружает пользователя по его идентификатору.
      * Spring Security вызывает этот метод во время аутентификации.
+     * Результат кэшируется в {@link PrincipalCacheService}.
      * @param identifier Идентификатор пользователя (может быть username или email).
      * @return объект UserDetails (в нашем случае, наш класс User, который его реализует).
      * @throws UsernameNotFoundException если пользователь не найден.
@@ -25,13 +31,31 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String identifier) throws UsernameNotFoundException {
+        return principalCacheService.getOrLoad(identifier, this::loadFromDatabase);
+    }
+
+    private User loadFromDatabase(String identifier) {
         log.debug("Attempting to load user by identifier: {}", identifier);
 
-        return userRepository.findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
+        return userRepository.findAllByUsernameOrEmailWithRoles(identifier).stream()
+                .min(Comparator.comparingInt(user -> matchRank(user, identifier)))
                 .orElseThrow(() -> {
                     log.warn("User not found with identifier: {}", identifier);
                     return new UsernameNotFoundException("User Not Found with identifier: " + identifier);
                 });
     }
+
+    /**
+     * Приоритет совпадения: точное совпадение username, затем email,
+     * затем совпадения без учета регистра в том же порядке.
+     */
+    private static int matchRank(User user, String identifier) {
+        if (identifier.equals(user.getUsername())) {
+            return 0;
+        }
+        if (identifier.equals(user.getEmail())) {
+            return 1;
+        }
+        return identifier.equalsIgnoreCase(user.getUsername()) ? 2 : 3;
+    }
 }
@@ -0,0 +1,154 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.csv.CsvWriter;
+import com.example.user_management_api.dto.UserResponseDto;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.service.UserExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка пользователей через серверный курсор PostgreSQL.
+ * <p>
+ * Строки читаются нативным запросом порциями по {@code fetch-size} внутри read-only транзакции
+ * (pgjdbc использует курсор только при выключенном autocommit) и сразу пишутся в ответ.
+ * Запрос возвращает скаляры, а не сущности, поэтому контекст персистентности не растет,
+ * а роли собираются в строку на стороне БД.
+ */
+@Slf4j
+@Service
+public class UserExportServiceImpl implements UserExportService {
+    private static final String EXPORT_QUERY = """
+            SELECT u.id, u.username, u.email, u.phone_number,
+                   ud.first_name, ud.last_name, ud.patronymic, ud.date_of_birth, ud.avatar_key,
+                   (SELECT string_agg(r.role, ',' ORDER BY r.role) FROM user_roles r WHERE r.user_id = u.id) AS roles
+            FROM users u
+            LEFT JOIN user_data ud ON ud.user_id = u.id
+            ORDER BY u.id
+            """;
+    private static final String CSV_HEADER =
+            "id,username,email,phoneNumber,firstName,lastName,patronymic,dateOfBirth,avatarKey,roles";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public UserExportServiceImpl(EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.users.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void exportUsers(Format format, OutputStream out) throws IOException {
+        long startedAt = System.nanoTime();
+        try {
+            long exported = readOnlyTransaction.execute(status -> {
+                try (Stream<Object[]> rows = streamRows()) {
+                    return format == Format.CSV ? writeCsv(rows, out) : writeNdjson(rows, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Exported {} users as {} in {} ms", exported, format, (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Stream<Object[]> streamRows() {
+        return entityManager.createNativeQuery(EXPORT_QUERY)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private long writeNdjson(Stream<Object[]> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                writer.write(toDto(row));
+                count++;
+            }
+            writer.flush();
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(Stream<Object[]> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        CsvWriter csv = new CsvWriter(writer);
+        for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+            csv.writeRow(row);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static UserResponseDto toDto(Object[] row) {
+        return new UserResponseDto(
+                (UUID) row[0],
+                (String) row[1],
+                (String) row[5],
+                (String) row[4],
+                (String) row[6],
+                toLocalDate(row[7]),
+                (String) row[2],
+                (String) row[3],
+                (String) row[8],
+                toRoles((String) row[9]));
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static Set<Role> toRoles(String roles) {
+        Set<Role> result = EnumSet.noneOf(Role.class);
+        if (roles != null && !roles.isEmpty()) {
+            Arrays.stream(roles.split(",")).map(Role::valueOf).forEach(result::add);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.csv.CsvReader;
+import com.example.user_management_api.csv.CsvWriter;
+import com.example.user_management_api.dto.CreateUserRequestDto;
+import com.example.user_management_api.dto.UserImportResultDto;
+import com.example.user_management_api.dto.UserImportResultDto.RowError;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.model.id.UuidV7;
+import com.example.user_management_api.service.PasswordHashingService;
+import com.example.user_management_api.service.UserImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт пользователей через {@code COPY} во временную таблицу.
+ * <p>
+ * CSV читается потоком порциями по {@code chunk-size} записей: каждая запись проверяется теми же
+ * правилами, что и {@link CreateUserRequestDto}, пароли порции хешируются параллельно на пуле
+ * хеширования. Открытый текст паролей в БД не попадает. Затем порция передается через
+ * {@code COPY FROM STDIN} во временную таблицу и переносится в {@code users}, {@code user_data}
+ * и {@code user_roles} тремя set-based запросами; {@code ON CONFLICT DO NOTHING} пропускает записи,
+ * чьи username, email или телефон уже заняты (в том числе записями выше по файлу), и они попадают в отчет.
+ * <p>
+ * Каждая порция — отдельная короткая транзакция, а хеширование идет вне транзакций. Одна транзакция
+ * на весь файл держала бы xmin на все время импорта, и лента изменений
+ * ({@link com.example.user_management_api.service.UserService#getUserChanges}) стояла бы до его конца.
+ * Поэтому при ошибке посреди файла уже перенесенные порции остаются в БД.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("password", "email", "phoneNumber", "firstName", "lastName", "dateOfBirth");
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMPORARY TABLE user_import_staging (
+                line_no       BIGINT  NOT NULL,
+                id            UUID    NOT NULL,
+                username      TEXT,
+                password      TEXT    NOT NULL,
+                email         TEXT    NOT NULL,
+                phone_number  TEXT    NOT NULL,
+                first_name    TEXT    NOT NULL,
+                last_name     TEXT    NOT NULL,
+                patronymic    TEXT,
+                date_of_birth DATE    NOT NULL,
+                roles         TEXT    NOT NULL,
+                imported      BOOLEAN NOT NULL DEFAULT FALSE
+            ) ON COMMIT DROP
+            """;
+    private static final String COPY_INTO_STAGING = """
+            COPY user_import_staging (line_no, id, username, password, email, phone_number,
+                                      first_name, last_name, patronymic, date_of_birth, roles)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+    private static final String MERGE_USERS = """
+            WITH inserted AS (
+                INSERT INTO users (id, username, password, email, phone_number)
+                SELECT id, username, password, email, phone_number
+                FROM user_import_staging
+                ORDER BY line_no
+                ON CONFLICT DO NOTHING
+                RETURNING id
+            )
+            UPDATE user_import_staging s SET imported = TRUE
+            FROM inserted i
+            WHERE s.id = i.id
+            """;
+    private static final String MERGE_USER_DATA = """
+            INSERT INTO user_data (user_id, first_name, last_name, patronymic, date_of_birth)
+            SELECT id, first_name, last_name, patronymic, date_of_birth
+            FROM user_import_staging
+            WHERE imported
+            """;
+    private static final String MERGE_USER_ROLES = """
+            INSERT INTO user_roles (user_id, role)
+            SELECT s.id, r.role
+            FROM user_import_staging s
+            CROSS JOIN LATERAL unnest(string_to_array(s.roles, ',')) AS r(role)
+            WHERE s.imported
+            """;
+    private static final String FIND_CONFLICTS = """
+            SELECT s.line_no,
+                   CASE
+                       WHEN EXISTS (SELECT 1 FROM users u WHERE u.username = s.username) THEN 'username'
+                       WHEN EXISTS (SELECT 1 FROM users u WHERE u.email = s.email) THEN 'email'
+                       ELSE 'phoneNumber'
+                   END AS conflict
+            FROM user_import_staging s
+            WHERE NOT s.imported
+            ORDER BY s.line_no
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordHashingService passwordHashingService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public UserImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                 PasswordHashingService passwordHashingService,
+                                 Validator validator,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.users.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${app.users.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordHashingService = passwordHashingService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public UserImportResultDto importUsers(InputStream csv) throws IOException {
+        long startedAt = System.nanoTime();
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+        Header header = readHeader(reader);
+        Report report = new Report();
+        List<StagedRecord> chunk = new ArrayList<>(chunkSize);
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            report.total++;
+            StagedRecord staged = parse(record, reader.getRecordLine(), header, report);
+            if (staged != null) {
+                chunk.add(staged);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+
+        report.errors.sort(Comparator.comparingLong(RowError::line));
+        log.info("User import finished in {} ms: {} records, {} imported, {} failed",
+                (System.nanoTime() - startedAt) / 1_000_000, report.total, report.imported, report.failed);
+        return new UserImportResultDto(report.total, report.imported, report.failed, List.copyOf(report.errors));
+    }
+
+    private Header readHeader(CsvReader reader) throws IOException {
+        List<String> names = reader.next();
+        if (names == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            // Excel добавляет BOM в начало файла
+            columns.put(names.get(i).replace("\uFEFF", "").trim(), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing required columns: " + String.join(", ", missing));
+        }
+        return new Header(columns, names.size());
+    }
+
+    /**
+     * @return запись для staging-таблицы или {@code null}, если запись отклонена (причина добавлена в отчет).
+     */
+    private StagedRecord parse(List<String> record, long line, Header header, Report report) {
+        if (record.size() != header.size()) {
+            report.reject(line, "Expected " + header.size() + " fields but found " + record.size());
+            return null;
+        }
+        LocalDate dateOfBirth = null;
+        String rawDateOfBirth = header.field(record, "dateOfBirth");
+        if (rawDateOfBirth != null) {
+            try {
+                dateOfBirth = LocalDate.parse(rawDateOfBirth);
+            } catch (DateTimeParseException e) {
+                report.reject(line, "dateOfBirth: must be an ISO date (yyyy-MM-dd)");
+                return null;
+            }
+        }
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        String rawRoles = header.field(record, "roles");
+        if (rawRoles == null) {
+            roles.add(Role.ROLE_USER);
+        } else {
+            for (String role : rawRoles.split(",")) {
+                try {
+                    roles.add(Role.valueOf(role.trim()));
+                } catch (IllegalArgumentException e) {
+                    report.reject(line, "roles: unknown role " + role.trim());
+                    return null;
+                }
+            }
+        }
+
+        CreateUserRequestDto request = new CreateUserRequestDto(
+                header.field(record, "username"),
+                header.field(record, "lastName"),
+                header.field(record, "firstName"),
+                header.field(record, "patronymic"),
+                dateOfBirth,
+                header.field(record, "email"),
+                header.field(record, "phoneNumber"),
+                header.field(record, "password"));
+        Set<ConstraintViolation<CreateUserRequestDto>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            report.reject(line, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return null;
+        }
+        String roleNames = roles.stream().map(Role::name).collect(Collectors.joining(","));
+        return new StagedRecord(line, request, roleNames);
+    }
+
+    /**
+     * Хеширует пароли порции параллельно и переносит порцию в БД отдельной транзакцией.
+     */
+    private void importChunk(List<StagedRecord> chunk, Report report) throws IOException {
+        List<String> hashes = passwordHashingService.encodeAll(
+                chunk.stream().map(staged -> staged.request().password()).toList());
+        StringBuilder buffer = new StringBuilder(chunk.size() * 256);
+        CsvWriter writer = new CsvWriter(buffer);
+        for (int i = 0; i < chunk.size(); i++) {
+            StagedRecord staged = chunk.get(i);
+            CreateUserRequestDto request = staged.request();
+            writer.writeRow(staged.line(), UuidV7.next(), request.username(), hashes.get(i), request.email(),
+                    request.phoneNumber(), request.firstName(), request.lastName(), request.patronymic(),
+                    request.dateOfBirth(), staged.roles());
+        }
+        byte[] rows = buffer.toString().getBytes(StandardCharsets.UTF_8);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(CREATE_STAGING_TABLE);
+            long staged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_INTO_STAGING);
+                try {
+                    copyIn.writeToCopy(rows, 0, rows.length);
+                    return copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+            });
+            merge(staged, report);
+            // ON COMMIT DROP не сработает, если порция выполняется во внешней транзакции
+            jdbcTemplate.execute("DROP TABLE user_import_staging");
+        });
+    }
+
+    private void merge(long staged, Report report) {
+        jdbcTemplate.execute("ANALYZE user_import_staging");
+        int imported = jdbcTemplate.update(MERGE_USERS);
+        jdbcTemplate.update(MERGE_USER_DATA);
+        jdbcTemplate.update(MERGE_USER_ROLES);
+        report.imported += imported;
+        report.failed += staged - imported;
+
+        if (staged > imported) {
+            int limit = Math.max(0, maxReportedErrors - report.errors.size());
+            jdbcTemplate.query(FIND_CONFLICTS, rs -> {
+                report.errors.add(new RowError(rs.getLong("line_no"),
+                        "A user with the given " + rs.getString("conflict") + " already exists."));
+            }, limit);
+        }
+    }
+
+    /**
+     * Заголовок CSV: позиции колонок по имени и ожидаемое число полей в записи.
+     */
+    private record Header(Map<String, Integer> columns, int size) {
+        /**
+         * @return значение колонки или {@code null}, если колонки нет или поле пустое.
+         */
+        private String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null) {
+                return null;
+            }
+            String value = record.get(index);
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    private record StagedRecord(long line, CreateUserRequestDto request, String roles) {
+    }
+
+    /**
+     * Счетчики и причины отказа; ошибки копятся только до {@code maxReportedErrors}.
+     */
+    private final class Report {
+        private final List<RowError> errors = new ArrayList<>();
+        private long total;
+        private long imported;
+        private long failed;
+
+        private void reject(long line, String error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, error));
+            }
+        }
+    }
+}
@@ -2,36 +2,91 @@ package com.example.user_management_api.service.impl;
 
 import com.example.user_management_api.dto.ChangePasswordRequestDto;
 import com.example.user_management_api.dto.CreateUserRequestDto;
+import com.example.user_management_api.dto.CursorPageResponseDto;
 import com.example.user_management_api.dto.UpdateUserDataRequestDto;
+import com.example.user_management_api.dto.UserChangeDto;
+import com.example.user_management_api.dto.UserChangesResponseDto;
 import com.example.user_management_api.dto.UserContactInfoResponseDto;
 import com.example.user_management_api.dto.UserDataResponseDto;
+import com.example.user_management_api.dto.UserLookupResponseDto;
 import com.example.user_management_api.dto.UserResponseDto;
+import com.example.user_management_api.dto.VersionedDto;
+import com.example.user_management_api.exception.PreconditionFailedException;
+import com.example.user_management_api.fieldset.UserField;
 import com.example.user_management_api.exception.UserNotFoundException;
 import com.example.user_management_api.mapper.UserMapper;
 import com.example.user_management_api.model.User;
 import com.example.user_management_api.model.UserData;
 import com.example.user_management_api.model.enums.Role;
-import com.example.user_management_api.repository.RefreshTokenRepository;
+import com.example.user_management_api.pagination.ChangeCursor;
+import com.example.user_management_api.pagination.KeysetCursor;
+import com.example.user_management_api.pagination.UserSortKey;
+import com.example.user_management_api.repository.UserDataRepository;
 import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.repository.UserRepositoryCustom;
+import com.example.user_management_api.repository.projection.RemovedAvatarRow;
+import com.example.user_management_api.repository.projection.UserChangeRow;
+import com.example.user_management_api.repository.projection.UserContactInfoRow;
+import com.example.user_management_api.repository.projection.UserLookupRow;
+import com.example.user_management_api.repository.projection.UserRoleRow;
+import com.example.user_management_api.repository.projection.UserVersionRow;
+import com.example.user_management_api.service.PrincipalCacheService;
+import com.example.user_management_api.service.RefreshTokenService;
+import com.example.user_management_api.service.TokenVersionService;
 import com.example.user_management_api.service.UserService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_LIMIT = 50;
+    /**
+     * Короче трех символов триграммный индекс не работает, и поиск превращается в полный просмотр.
+     */
+    private static final int MIN_SEARCH_QUERY_LENGTH = 3;
+    private static final int SEARCH_CANDIDATES_PER_FIELD = 200;
+    private static final int MAX_LOOKUP_IDS = 500;
+    private static final int MAX_CHANGES_PAGE_SIZE = 1000;
+
     private final UserRepository userRepository;
+    private final UserDataRepository userDataRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final PrincipalCacheService principalCacheService;
+    private final TokenVersionService tokenVersionService;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
     @Transactional
@@ -54,24 +109,150 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserResponseDto(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public VersionedDto<UserResponseDto> getVersionedUserById(UUID id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+        UserData userData = user.getUserData();
+        String versionTag = versionTag(user.getVersion(), userData == null ? null : userData.getVersion());
+        return new VersionedDto<>(versionTag, userMapper.toUserResponseDto(user));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionedDto<Map<String, Object>> getVersionedUserFieldsById(UUID id, Set<UserField> fields) {
+        // Версии читаются тем же запросом, что и поля, а роли — после него, поэтому метка не новее данных
+        List<Tuple> tuples = userRepository.findFieldsByIdIn(List.of(id), fields, true);
+        if (tuples.isEmpty()) {
+            throw new UserNotFoundException("User not found with id: " + id);
+        }
+        Tuple tuple = tuples.get(0);
+        String versionTag = versionTag(tuple.get(UserRepositoryCustom.USER_VERSION, Long.class),
+                tuple.get(UserRepositoryCustom.DATA_VERSION, Long.class));
+        return new VersionedDto<>(versionTag, toFieldValues(tuple, fields, loadRoles(List.of(id), fields)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserLookupResponseDto lookupUsers(List<UUID> ids) {
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > MAX_LOOKUP_IDS) {
+            throw new IllegalArgumentException("Lookup must not exceed " + MAX_LOOKUP_IDS + " ids");
+        }
+        if (requested.isEmpty()) {
+            return new UserLookupResponseDto(List.of(), List.of());
+        }
+        Map<UUID, UserResponseDto> usersById = lookupByIds(requested);
+        List<UserResponseDto> users = new ArrayList<>(usersById.size());
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID id : requested) {
+            UserResponseDto user = usersById.get(id);
+            if (user == null) {
+                notFound.add(id);
+            } else {
+                users.add(user);
+            }
+        }
+        return new UserLookupResponseDto(users, notFound);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserVersionTag(UUID id) {
+        UserVersionRow versions = userRepository.findVersionsById(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+        return versionTag(versions.getUserVersion(), versions.getDataVersion());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<UserResponseDto> getAllUsers(Pageable pageable) {
-        Page<User> userPage = userRepository.findAllWithData(pageable);
-        return userPage.map(userMapper::toUserResponseDto);
+        // Сначала страница id в SQL, затем один запрос за UserData и ролями именно этих пользователей:
+        // fetch join коллекции вместе с лимитом заставил бы Hibernate резать страницу в памяти
+        Page<UUID> idPage = userRepository.findIdPage(pageable);
+        List<User> users = loadInOrder(idPage.getContent());
+        return new PageImpl<>(users, pageable, idPage.getTotalElements()).map(userMapper::toUserResponseDto);
     }
 
     @Override
-    @Transactional
-    public UserDataResponseDto  updateUser(UUID userId, UpdateUserDataRequestDto requestDto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-        UserData userDataToUpdate = user.getUserData();
-        if (userDataToUpdate == null) {
-            throw new IllegalStateException("User with id " + userId + " does not have associated user data.");
+    @Transactional(readOnly = true)
+    public Slice<UserResponseDto> getUserSlice(Pageable pageable) {
+        Slice<UUID> idSlice = userRepository.findIdSlice(pageable);
+        List<User> users = loadInOrder(idSlice.getContent());
+        return new SliceImpl<>(users, pageable, idSlice.hasNext()).map(userMapper::toUserResponseDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllUsers(Pageable pageable, Set<UserField> fields) {
+        Page<UUID> idPage = userRepository.findIdPage(pageable);
+        return new PageImpl<>(loadFieldsInOrder(idPage.getContent(), fields), pageable, idPage.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<UserResponseDto> getUsersByCursor(UserSortKey sortKey, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        KeysetCursor after = StringUtils.hasText(cursor) ? KeysetCursor.decode(cursor, sortKey) : null;
+
+        // Одна лишняя запись показывает, есть ли следующая страница, без отдельного count
+        List<UUID> ids = userRepository.findIdPageAfter(sortKey, after, pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        List<User> page = loadInOrder(hasNext ? ids.subList(0, pageSize) : ids);
+
+        String nextCursor = hasNext ? cursorOf(sortKey, page.get(page.size() - 1)).encode() : null;
+        return new CursorPageResponseDto<>(page.stream().map(userMapper::toUserResponseDto).toList(), nextCursor, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserChangesResponseDto getUserChanges(String since, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CHANGES_PAGE_SIZE);
+        ChangeCursor after = StringUtils.hasText(since) ? ChangeCursor.decode(since) : ChangeCursor.START;
+
+        List<UserChangeRow> rows = userRepository.findChangesAfter(after.changeXid(), after.id(), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<UserChangeRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        Map<UUID, UserResponseDto> usersById = lookupByIds(page.stream()
+                .filter(row -> !row.isDeleted())
+                .map(UserChangeRow::getId)
+                .toList());
+        List<UserChangeDto> changes = page.stream()
+                .map(row -> {
+                    // Пользователь мог быть удален после чтения ленты; его tombstone придет следующим запросом
+                    UserResponseDto user = usersById.get(row.getId());
+                    return new UserChangeDto(row.getId(), user == null, row.getChangedAt(), user);
+                })
+                .toList();
+
+        ChangeCursor next = page.isEmpty() ? after
+                : new ChangeCursor(page.get(page.size() - 1).getChangeXid(), page.get(page.size() - 1).getId());
+        return new UserChangesResponseDto(changes, next.encode(), hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponseDto> searchUsers(String query, int limit) {
+        String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (term.length() < MIN_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at least " + MIN_SEARCH_QUERY_LENGTH + " characters long");
         }
-        userMapper.updateUserDataFromDto(requestDto, userDataToUpdate);
-        return userMapper.toUserDataDto(userDataToUpdate);
+        int resultLimit = Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT);
+        List<UUID> ids = userRepository.searchIds(term, escapeLike(term) + "%", SEARCH_CANDIDATES_PER_FIELD, resultLimit);
+        return loadInOrder(ids).stream().map(userMapper::toUserResponseDto).toList();
+    }
+
+    @Override
+    @Transactional
+    public UserDataResponseDto updateUser(UUID userId, UpdateUserDataRequestDto requestDto, Long expectedVersion) {
+        // Один UPDATE ... RETURNING вместо загрузки User, ролей и UserData с последующим dirty checking
+        UserData updated = userDataRepository.updateFields(userId, requestDto.lastName(), requestDto.firstName(),
+                        requestDto.patronymic(), requestDto.dateOfBirth(), expectedVersion)
+                .orElseThrow(() -> updateRejected(userId, expectedVersion));
+        evictUserData(userId);
+        return userMapper.toUserDataDto(updated);
     }
 
     @Override
@@ -80,9 +261,11 @@ public class UserServiceImpl implements UserService {
         User userToDelete = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
         // 2. Явно удаляем все связанные RefreshToken'ы.
-        refreshTokenRepository.deleteByUser(userToDelete);
+        refreshTokenService.deleteByUserId(userToDelete.getId());
         // 3. Теперь удаляем самого пользователя.
         userRepository.delete(userToDelete);
+        principalCacheService.evict(userToDelete);
+        tokenVersionService.evict(id);
     }
 
     @Override
@@ -95,47 +278,196 @@ public class UserServiceImpl implements UserService {
             throw new BadCredentialsException("Invalid old password");
         }
         user.setPassword(passwordEncoder.encode(requestDto.newPassword()));
+        // Токены, выданные до смены пароля, больше не соответствуют версии учетных данных
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        // Refresh-токены хранят снимок старой версии, поэтому отзываются вместе с ней
+        refreshTokenService.deleteByUserId(id);
+        principalCacheService.evict(user);
+        tokenVersionService.evict(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserContactInfoResponseDto getUserContactInfo(UUID id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-        return userMapper.toUserContactInfoDto(user);
+        List<UserContactInfoRow> rows = userRepository.findContactInfoRowsById(id);
+        if (rows.isEmpty()) {
+            throw new UserNotFoundException("User not found with id: " + id);
+        }
+        UserContactInfoRow first = rows.get(0);
+        Set<Role> roles = rows.stream()
+                .map(UserContactInfoRow::getRole)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(Role.class)));
+        return new UserContactInfoResponseDto(first.getId(), first.getUsername(), first.getEmail(),
+                first.getPhoneNumber(), roles);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDataResponseDto getUserData(UUID id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
-        return userMapper.toUserDataDto(user.getUserData());
+        return userDataRepository.findDtoByUserId(id)
+                .orElseThrow(() -> new UserNotFoundException("User data not found for user with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getUserDataVersion(UUID id) {
+        return userDataRepository.findVersionByUserId(id)
+                .orElseThrow(() -> new UserNotFoundException("User data not found for user with id: " + id));
     }
 
     @Override
     @Transactional
     public void setAvatar(UUID userId, String avatarKey) {
-        UserData userData = findUserDataByUserId(userId);
-        userData.setAvatarKey(avatarKey);
-
+        userDataRepository.updateAvatarKey(userId, avatarKey)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        evictUserData(userId);
     }
 
     @Override
     @Transactional
     public String removeAvatar(UUID userId) {
-        UserData userData = findUserDataByUserId(userId);
-        String oldAvatarKey = userData.getAvatarKey();
-        userData.setAvatarKey(null);
-        return oldAvatarKey;
+        RemovedAvatarRow removed = userDataRepository.clearAvatarKey(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        evictUserData(userId);
+        return removed.getPreviousAvatarKey();
     }
 
-    private UserData findUserDataByUserId(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-        UserData userData = user.getUserData();
-        if (userData == null) {
-            throw new IllegalStateException("User data not found for user with id: " + userId);
+    /**
+     * Загружает пользователей с UserData и ролями одним запросом и возвращает их в порядке {@code ids}.
+     */
+    private List<User> loadInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, User> usersById = userRepository.findAllWithDataAndRolesByIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Читает только запрошенные поля пользователей и возвращает их в порядке {@code ids}.
+     * Роли, если запрошены, читаются вторым запросом; иначе к user_roles запроса нет.
+     */
+    private List<Map<String, Object>> loadFieldsInOrder(List<UUID> ids, Set<UserField> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Set<Role>> rolesById = loadRoles(ids, fields);
+        Map<UUID, Map<String, Object>> usersById = new HashMap<>();
+        for (Tuple tuple : userRepository.findFieldsByIdIn(ids, fields, false)) {
+            usersById.put(tuple.get(UserField.ID.getParamName(), UUID.class), toFieldValues(tuple, fields, rolesById));
+        }
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Читает роли пользователей отдельным запросом, только если роли запрошены.
+     */
+    private Map<UUID, Set<Role>> loadRoles(List<UUID> ids, Set<UserField> fields) {
+        Map<UUID, Set<Role>> rolesById = new HashMap<>();
+        if (fields.contains(UserField.ROLES)) {
+            for (UserRoleRow row : userRepository.findRolesByIdIn(ids)) {
+                rolesById.computeIfAbsent(row.getId(), userId -> EnumSet.noneOf(Role.class)).add(row.getRole());
+            }
+        }
+        return rolesById;
+    }
+
+    private static Map<String, Object> toFieldValues(Tuple tuple, Set<UserField> fields, Map<UUID, Set<Role>> rolesById) {
+        UUID userId = tuple.get(UserField.ID.getParamName(), UUID.class);
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (UserField field : fields) {
+            values.put(field.getParamName(), field == UserField.ROLES
+                    ? rolesById.getOrDefault(userId, EnumSet.noneOf(Role.class))
+                    : tuple.get(field.getParamName()));
+        }
+        return values;
+    }
+
+    /**
+     * Метка версии пользователя: версия User и версия UserData (0, если данных нет).
+     */
+    private static String versionTag(long userVersion, Long dataVersion) {
+        return userVersion + "." + (dataVersion == null ? 0 : dataVersion);
+    }
+
+    /**
+     * Загружает пользователей с UserData и ролями одним запросом {@code = ANY} без загрузки сущностей.
+     * @return найденные пользователи по id; отсутствующих id в результате нет.
+     */
+    private Map<UUID, UserResponseDto> lookupByIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        // Одна строка на роль: строки одного пользователя собираются в один DTO
+        return userRepository.findLookupRowsByIdIn(ids.toArray(UUID[]::new)).stream()
+                .collect(Collectors.groupingBy(UserLookupRow::getId))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> toUserResponseDto(entry.getValue())));
+    }
+
+    private static UserResponseDto toUserResponseDto(List<UserLookupRow> rows) {
+        UserLookupRow first = rows.get(0);
+        Set<Role> roles = rows.stream()
+                .map(UserLookupRow::getRole)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(Role.class)));
+        return new UserResponseDto(first.getId(), first.getUsername(), first.getLastName(), first.getFirstName(),
+                first.getPatronymic(), first.getDateOfBirth(), first.getEmail(), first.getPhoneNumber(),
+                first.getAvatarKey(), roles);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static KeysetCursor cursorOf(UserSortKey sortKey, User user) {
+        String value = switch (sortKey) {
+            case ID -> null;
+            case EMAIL -> user.getEmail();
+            case LAST_NAME -> user.getUserData().getLastName();
+        };
+        return new KeysetCursor(sortKey, value, user.getId());
+    }
+
+    /**
+     * Определяет причину, по которой условный UPDATE не затронул ни одной строки.
+     * Лишний запрос выполняется только на этом редком пути.
+     */
+    private RuntimeException updateRejected(UUID userId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return new UserNotFoundException("User not found with id: " + userId);
+        }
+        Long currentVersion = userDataRepository.findVersionByUserId(userId).orElse(null);
+        if (currentVersion == null) {
+            return new UserNotFoundException("User not found with id: " + userId);
+        }
+        return new PreconditionFailedException("User data has been modified: expected version " + expectedVersion
+                + ", current version " + currentVersion);
+    }
+
+    /**
+     * Вытесняет UserData из кэша второго уровня сразу и повторно после завершения транзакции,
+     * чтобы параллельное чтение не вернуло в кэш состояние до коммита.
+     */
+    private void evictUserData(UUID userId) {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(UserData.class, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(UserData.class, userId);
+                }
+            });
         }
-        return userData;
     }
 }
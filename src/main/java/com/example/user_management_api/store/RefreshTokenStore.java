@@ -0,0 +1,36 @@
+package com.example.user_management_api.store;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Хранилище refresh-токенов. Реализация выбирается свойством {@code app.refresh-token.store-type}:
+ * {@code jpa} (по умолчанию, таблица refresh_tokens) или {@code memory} (память процесса,
+ * подходит для развертывания в один узел).
+ */
+public interface RefreshTokenStore {
+    /**
+     * Сохраняет токен, заменяя все ранее выданные токены этого пользователя.
+     * @param token новый токен.
+     */
+    void save(StoredRefreshToken token);
+
+    /**
+     * Ищет токен по его значению.
+     * @param token строка токена.
+     * @return найденный токен или пустой Optional.
+     */
+    Optional<StoredRefreshToken> findByToken(String token);
+
+    /**
+     * Удаляет токен по его значению.
+     * @param token строка токена.
+     */
+    void delete(String token);
+
+    /**
+     * Удаляет все токены пользователя.
+     * @param userId ID пользователя.
+     */
+    void deleteByUserId(UUID userId);
+}
@@ -0,0 +1,31 @@
+package com.example.user_management_api.store;
+
+import com.example.user_management_api.model.enums.Role;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Refresh-токен вместе со снимком данных пользователя, достаточным для выпуска нового access-токена
+ * без обращения к таблице users.
+ *
+ * @param token        значение токена, которое получает клиент.
+ * @param userId       ID пользователя.
+ * @param username     имя пользователя (subject access-токена).
+ * @param roles        роли пользователя.
+ * @param tokenVersion версия учетных данных пользователя.
+ * @param expiryDate   момент истечения срока действия.
+ */
+public record StoredRefreshToken(
+        String token,
+        UUID userId,
+        String username,
+        Set<Role> roles,
+        int tokenVersion,
+        Instant expiryDate
+) {
+    public boolean isExpired(Instant now) {
+        return expiryDate.compareTo(now) < 0;
+    }
+}
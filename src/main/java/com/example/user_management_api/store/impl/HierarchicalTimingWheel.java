@@ -0,0 +1,136 @@
+package com.example.user_management_api.store.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Иерархическое колесо таймеров для отложенного истечения элементов.
+ * <p>
+ * Нижний уровень делится на {@code wheelSize} ячеек по {@code tickMs}; элементы с более дальним сроком
+ * попадают в уровень-переполнение с шагом, равным интервалу нижнего уровня, и так далее. При продвижении
+ * часов ячейки верхних уровней переносятся вниз, поэтому добавление и истечение выполняются за O(1)
+ * на элемент независимо от того, сколько элементов ожидает.
+ * <p>
+ * Элемент никогда не истекает раньше своего срока: он отдается в {@code onExpire} в первый тик,
+ * для которого {@code deadline <= now}. Удаление элементов не поддерживается — владелец колеса
+ * сам проверяет, актуален ли истекший элемент.
+ *
+ * @param <T> тип элемента.
+ */
+public class HierarchicalTimingWheel<T> {
+    private final Level<T> root;
+    private final List<Entry<T>> alreadyExpired = new ArrayList<>();
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.root = new Level<>(tickMs, wheelSize, startMs, true);
+    }
+
+    /**
+     * Планирует истечение элемента.
+     * @param item       элемент.
+     * @param deadlineMs момент истечения (epoch millis).
+     */
+    public synchronized void schedule(T item, long deadlineMs) {
+        Entry<T> entry = new Entry<>(item, deadlineMs);
+        if (!root.add(entry)) {
+            alreadyExpired.add(entry);
+        }
+        size++;
+    }
+
+    /**
+     * Продвигает часы до {@code nowMs} и отдает все элементы, чей срок наступил.
+     * @param nowMs    текущее время (epoch millis).
+     * @param onExpire обработчик истекших элементов.
+     */
+    public synchronized void advance(long nowMs, Consumer<T> onExpire) {
+        List<Entry<T>> due = new ArrayList<>(alreadyExpired);
+        alreadyExpired.clear();
+        root.advanceClock(nowMs, due::add);
+        for (Entry<T> entry : due) {
+            // Элементы из верхних уровней переезжают в более мелкие ячейки или истекают
+            if (!root.add(entry)) {
+                size--;
+                onExpire.accept(entry.item());
+            }
+        }
+    }
+
+    /**
+     * @return количество запланированных и еще не истекших элементов.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private record Entry<T>(T item, long deadlineMs) {
+    }
+
+    private static final class Level<T> {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long intervalMs;
+        /**
+         * Нижний уровень округляет срок вверх (ячейка срабатывает не раньше срока),
+         * уровни-переполнения — вниз (элемент спускается на уровень ниже до наступления срока).
+         */
+        private final boolean roundUp;
+        private final List<Entry<T>>[] buckets;
+        private long currentTimeMs;
+        private Level<T> overflow;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMs, int wheelSize, long startMs, boolean roundUp) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.intervalMs = tickMs * wheelSize;
+            this.roundUp = roundUp;
+            this.buckets = new List[wheelSize];
+            this.currentTimeMs = startMs - (startMs % tickMs);
+        }
+
+        /**
+         * @return false, если срок элемента уже наступил.
+         */
+        private boolean add(Entry<T> entry) {
+            long deadline = entry.deadlineMs();
+            if (deadline <= currentTimeMs) {
+                return false;
+            }
+            long slot = roundUp ? Math.floorDiv(deadline + tickMs - 1, tickMs) : deadline / tickMs;
+            long slotTime = slot * tickMs;
+            boolean fits = roundUp
+                    ? slotTime <= currentTimeMs + intervalMs
+                    : slotTime < currentTimeMs + intervalMs;
+            if (fits) {
+                int index = (int) (slot % wheelSize);
+                if (buckets[index] == null) {
+                    buckets[index] = new ArrayList<>();
+                }
+                buckets[index].add(entry);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level<>(intervalMs, wheelSize, currentTimeMs, false);
+            }
+            return overflow.add(entry);
+        }
+
+        private void advanceClock(long nowMs, Consumer<Entry<T>> sink) {
+            while (currentTimeMs + tickMs <= nowMs) {
+                currentTimeMs += tickMs;
+                int index = (int) ((currentTimeMs / tickMs) % wheelSize);
+                List<Entry<T>> bucket = buckets[index];
+                if (bucket != null) {
+                    buckets[index] = null;
+                    bucket.forEach(sink);
+                }
+            }
+            if (overflow != null) {
+                overflow.advanceClock(currentTimeMs, sink);
+            }
+        }
+    }
+}
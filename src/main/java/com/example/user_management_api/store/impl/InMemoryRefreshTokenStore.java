@@ -0,0 +1,243 @@
+package com.example.user_management_api.store.impl;
+
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.store.RefreshTokenStore;
+import com.example.user_management_api.store.StoredRefreshToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Хранилище refresh-токенов в памяти процесса.
+ * <p>
+ * Токены хранятся только в виде SHA-256 хеша. Истечение обслуживает {@link HierarchicalTimingWheel},
+ * который продвигается по расписанию. Если задан {@code app.refresh-token.memory.journal-path},
+ * все изменения дописываются в журнал, который воспроизводится и сжимается при старте,
+ * поэтому токены переживают перезапуск. Подходит только для развертывания в один узел.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.refresh-token.store-type", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+    private static final String PUT = "P";
+    private static final String DELETE = "D";
+
+    private final ConcurrentHashMap<String, Entry> entriesByHash = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, String> hashByUserId = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel<String> expirationWheel;
+    private final Path journalPath;
+    private BufferedWriter journal;
+
+    public InMemoryRefreshTokenStore(@Value("${app.refresh-token.memory.tick-ms:1000}") long tickMs,
+                                     @Value("${app.refresh-token.memory.journal-path:}") String journalPath) {
+        this.expirationWheel = new HierarchicalTimingWheel<>(tickMs, 64, System.currentTimeMillis());
+        this.journalPath = StringUtils.hasText(journalPath) ? Path.of(journalPath) : null;
+    }
+
+    @PostConstruct
+    void openJournal() throws IOException {
+        if (journalPath == null) {
+            return;
+        }
+        if (Files.exists(journalPath)) {
+            replayJournal();
+        }
+        compactJournal();
+        journal = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.info("Refresh token journal '{}' opened, {} live tokens restored", journalPath, entriesByHash.size());
+    }
+
+    @PreDestroy
+    synchronized void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    @Override
+    public void save(StoredRefreshToken token) {
+        String hash = hash(token.token());
+        Entry entry = new Entry(token.userId(), token.username(), token.roles(), token.tokenVersion(), token.expiryDate());
+        put(hash, entry);
+        expirationWheel.schedule(hash, entry.expiryDate().toEpochMilli());
+        appendToJournal(PUT, hash, entry);
+    }
+
+    @Override
+    public Optional<StoredRefreshToken> findByToken(String token) {
+        Entry entry = entriesByHash.get(hash(token));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoredRefreshToken(token, entry.userId(), entry.username(), entry.roles(),
+                entry.tokenVersion(), entry.expiryDate()));
+    }
+
+    @Override
+    public void delete(String token) {
+        String hash = hash(token);
+        if (remove(hash) != null) {
+            appendToJournal(DELETE, hash, null);
+        }
+    }
+
+    @Override
+    public void deleteByUserId(UUID userId) {
+        String hash = hashByUserId.get(userId);
+        if (hash != null && remove(hash) != null) {
+            appendToJournal(DELETE, hash, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh-token.memory.tick-ms:1000}")
+    public void expireTokens() {
+        expireUpTo(System.currentTimeMillis());
+    }
+
+    /**
+     * Удаляет токены, срок действия которых наступил к моменту {@code nowMs}.
+     * Токены, уже замененные или удаленные, колесо тоже отдает — для них это пустая операция.
+     */
+    void expireUpTo(long nowMs) {
+        Instant now = Instant.ofEpochMilli(nowMs);
+        expirationWheel.advance(nowMs, hash -> {
+            Entry entry = entriesByHash.get(hash);
+            if (entry != null && !entry.expiryDate().isAfter(now) && remove(hash) != null) {
+                appendToJournal(DELETE, hash, null);
+            }
+        });
+    }
+
+    int size() {
+        return entriesByHash.size();
+    }
+
+    private void put(String hash, Entry entry) {
+        hashByUserId.compute(entry.userId(), (userId, previousHash) -> {
+            if (previousHash != null && !previousHash.equals(hash)) {
+                entriesByHash.remove(previousHash);
+            }
+            entriesByHash.put(hash, entry);
+            return hash;
+        });
+    }
+
+    private Entry remove(String hash) {
+        Entry removed = entriesByHash.remove(hash);
+        if (removed != null) {
+            hashByUserId.remove(removed.userId(), hash);
+        }
+        return removed;
+    }
+
+    private synchronized void appendToJournal(String operation, String hash, Entry entry) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.write(PUT.equals(operation) ? formatPut(hash, entry) : DELETE + '\t' + hash);
+            journal.newLine();
+            journal.flush();
+        } catch (IOException e) {
+            log.error("Failed to append to refresh token journal '{}'", journalPath, e);
+        }
+    }
+
+    private void replayJournal() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                try {
+                    if (PUT.equals(parts[0]) && parts.length == 7) {
+                        put(parts[1], parseEntry(parts));
+                    } else if (DELETE.equals(parts[0]) && parts.length == 2) {
+                        remove(parts[1]);
+                    }
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping corrupted refresh token journal line");
+                }
+            }
+        }
+        Instant now = Instant.now();
+        entriesByHash.forEach((hash, entry) -> {
+            if (entry.expiryDate().isAfter(now)) {
+                expirationWheel.schedule(hash, entry.expiryDate().toEpochMilli());
+            } else {
+                remove(hash);
+            }
+        });
+    }
+
+    /**
+     * Переписывает журнал, оставляя только живые токены.
+     */
+    private void compactJournal() throws IOException {
+        Path tempFile = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            for (var mapEntry : entriesByHash.entrySet()) {
+                writer.write(formatPut(mapEntry.getKey(), mapEntry.getValue()));
+                writer.newLine();
+            }
+        }
+        Files.move(tempFile, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String formatPut(String hash, Entry entry) {
+        String username = entry.username() == null ? "" : Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(entry.username().getBytes(StandardCharsets.UTF_8));
+        String roles = entry.roles().stream().map(Role::name).collect(Collectors.joining(","));
+        return String.join("\t", PUT, hash, entry.userId().toString(), username, roles,
+                String.valueOf(entry.tokenVersion()), String.valueOf(entry.expiryDate().toEpochMilli()));
+    }
+
+    private static Entry parseEntry(String[] parts) {
+        String username = parts[3].isEmpty() ? null
+                : new String(Base64.getUrlDecoder().decode(parts[3]), StandardCharsets.UTF_8);
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        if (!parts[4].isEmpty()) {
+            Arrays.stream(parts[4].split(",")).map(Role::valueOf).forEach(roles::add);
+        }
+        return new Entry(UUID.fromString(parts[2]), username, Set.copyOf(roles),
+                Integer.parseInt(parts[5]), Instant.ofEpochMilli(Long.parseLong(parts[6])));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(UUID userId, String username, Set<Role> roles, int tokenVersion, Instant expiryDate) {
+    }
+}
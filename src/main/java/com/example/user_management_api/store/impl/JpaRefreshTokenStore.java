@@ -0,0 +1,58 @@
+package com.example.user_management_api.store.impl;
+
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.id.UuidV7;
+import com.example.user_management_api.repository.RefreshTokenRepository;
+import com.example.user_management_api.store.RefreshTokenStore;
+import com.example.user_management_api.store.StoredRefreshToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Хранилище refresh-токенов в таблице refresh_tokens.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.refresh-token.store-type", havingValue = "jpa", matchIfMissing = true)
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public void save(StoredRefreshToken token) {
+        refreshTokenRepository.upsert(UuidV7.next(), token.userId(), token.token(), token.expiryDate());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StoredRefreshToken> findByToken(String token) {
+        return refreshTokenRepository.findByToken(token)
+                .map(refreshToken -> {
+                    User user = refreshToken.getUser();
+                    return new StoredRefreshToken(
+                            refreshToken.getToken(),
+                            user.getId(),
+                            user.getUsername(),
+                            Set.copyOf(user.getRoles()),
+                            user.getTokenVersion(),
+                            refreshToken.getExpiryDate());
+                });
+    }
+
+    @Override
+    @Transactional
+    public void delete(String token) {
+        refreshTokenRepository.deleteByToken(token);
+    }
+
+    @Override
+    @Transactional
+    public void deleteByUserId(UUID userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.user_management_api.store.impl;
+
+import com.example.user_management_api.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновая очистка истекших refresh-токенов из таблицы refresh_tokens.
+ * <p>
+ * Удаление идет порциями по {@code chunk-size} строк, каждая порция — отдельная транзакция,
+ * между порциями выдерживается пауза. За один запуск удаляется не более {@code max-chunks} порций,
+ * остаток дочищается следующим запуском.
+ * <p>
+ * Очистка выполняется в собственном потоке, а не в общем планировщике {@code @Scheduled}:
+ * паузы между порциями иначе задерживали бы остальные задачи по расписанию.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.refresh-token.store-type", havingValue = "jpa", matchIfMissing = true)
+public class JpaRefreshTokenSweeper {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final boolean enabled;
+    private final long intervalMs;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final int maxChunks;
+    private final Counter purgedCounter;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-token-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JpaRefreshTokenSweeper(RefreshTokenRepository refreshTokenRepository,
+                                  @Value("${app.refresh-token.sweeper.enabled:true}") boolean enabled,
+                                  @Value("${app.refresh-token.sweeper.interval-ms:300000}") long intervalMs,
+                                  @Value("${app.refresh-token.sweeper.chunk-size:1000}") int chunkSize,
+                                  @Value("${app.refresh-token.sweeper.pause-ms:100}") long pauseMs,
+                                  @Value("${app.refresh-token.sweeper.max-chunks:100}") int maxChunks,
+                                  MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.enabled = enabled;
+        this.intervalMs = intervalMs;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.maxChunks = maxChunks;
+        this.purgedCounter = Counter.builder("refresh.tokens.purged")
+                .description("Expired refresh tokens removed by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::sweep, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Прерывает паузу между порциями, незавершенный остаток дочистится после перезапуска
+        scheduler.shutdownNow();
+    }
+
+    void sweep() {
+        try {
+            sweepExpired(Instant.now());
+        } catch (RuntimeException e) {
+            // Исключение из задачи отменило бы все следующие запуски
+            log.error("Refresh token sweep failed", e);
+        }
+    }
+
+    /**
+     * Удаляет токены, истекшие к моменту {@code now}.
+     * @return количество удаленных строк за этот запуск.
+     */
+    int sweepExpired(Instant now) {
+        long startedAt = System.nanoTime();
+        int purged = 0;
+        int chunks = 0;
+        while (chunks < maxChunks) {
+            int deleted = refreshTokenRepository.deleteExpiredChunk(now, chunkSize);
+            chunks++;
+            purged += deleted;
+            purgedCounter.increment(deleted);
+            if (deleted < chunkSize || !pause()) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens in {} chunks ({} ms)",
+                    purged, chunks, (System.nanoTime() - startedAt) / 1_000_000);
+        }
+        return purged;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
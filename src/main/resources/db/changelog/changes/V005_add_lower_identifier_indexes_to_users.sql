@@ -0,0 +1,2 @@
+CREATE INDEX idx_users_username_lower ON users (lower(username));
+CREATE INDEX idx_users_email_lower ON users (lower(email));
@@ -0,0 +1 @@
+CREATE INDEX idx_refresh_tokens_expiry_date ON refresh_tokens (expiry_date);
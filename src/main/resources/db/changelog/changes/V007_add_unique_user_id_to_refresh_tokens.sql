@@ -0,0 +1,8 @@
+-- У пользователя остается один токен: самый поздно истекающий
+DELETE FROM refresh_tokens rt
+USING refresh_tokens newer
+WHERE rt.user_id = newer.user_id
+  AND (rt.expiry_date < newer.expiry_date
+       OR (rt.expiry_date = newer.expiry_date AND rt.id < newer.id));
+
+CREATE UNIQUE INDEX uk_refresh_tokens_user_id ON refresh_tokens (user_id);
@@ -0,0 +1,2 @@
+-- Индекс для постраничного обхода пользователей по (last_name, user_id)
+CREATE INDEX idx_user_data_last_name_user_id ON user_data (last_name, user_id);
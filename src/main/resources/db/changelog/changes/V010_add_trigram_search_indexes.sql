@@ -0,0 +1,16 @@
+-- Триграммные индексы для поиска пользователей по префиксу и нечеткому совпадению.
+-- GiST, а не GIN: GiST умеет выдавать строки в порядке расстояния (<->), поэтому каждое поле
+-- отдает лучших кандидатов, а не первых попавшихся.
+-- Создаются CONCURRENTLY, чтобы не блокировать запись в больших таблицах.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_data_first_name_trgm
+    ON user_data USING gist (lower(first_name) gist_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_data_last_name_trgm
+    ON user_data USING gist (lower(last_name) gist_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_data_patronymic_trgm
+    ON user_data USING gist (lower(patronymic) gist_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm
+    ON users USING gist (lower(email) gist_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_phone_number_trgm
+    ON users USING gist (phone_number gist_trgm_ops);
@@ -0,0 +1,6 @@
+-- Версии строк для оптимистической блокировки и ETag.
+-- Столбец с константным DEFAULT добавляется без перезаписи таблицы.
+ALTER TABLE users
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE user_data
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,19 @@
+-- UUID v7 (RFC 9562) для ключей, которые вставляются в обход приложения.
+-- Первые 6 байт случайного UUID заменяются миллисекундами Unix-времени, версия меняется с 4 на 7;
+-- вариант и остальные случайные биты остаются от gen_random_uuid().
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS UUID AS $$
+SELECT encode(
+               set_bit(
+                       set_bit(
+                               overlay(uuid_send(gen_random_uuid())
+                                       PLACING substring(int8send(floor(extract(EPOCH FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                                       FROM 1 FOR 6),
+                               52, 1),
+                       53, 1),
+               'hex')::UUID;
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE users
+    ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE refresh_tokens
+    ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,158 @@
+-- Лента изменений пользователей: одна строка на пользователя с моментом последнего изменения.
+-- Строка удаленного пользователя остается с deleted = true (tombstone), id пользователей не переиспользуются.
+-- change_xid — 64-битный номер транзакции, которая последней изменила пользователя. В отличие от значения
+-- последовательности, по нему можно определить, что все транзакции с меньшим номером уже завершились,
+-- поэтому читатель ленты не пропустит изменение, закоммиченное позже соседнего.
+CREATE TABLE user_changes
+(
+    user_id    UUID PRIMARY KEY,
+    change_xid BIGINT      NOT NULL,
+    changed_at TIMESTAMPTZ NOT NULL,
+    deleted    BOOLEAN     NOT NULL
+);
+
+CREATE INDEX idx_user_changes_change_xid_user_id ON user_changes (change_xid, user_id);
+
+INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+SELECT id, pg_current_xact_id()::TEXT::BIGINT, now(), FALSE
+FROM users;
+
+-- Триггеры срабатывают один раз на оператор, а не на строку: измененные строки берутся из таблиц
+-- переходов (REFERENCING ... TABLE), и каждая запись ленты выполняется одним INSERT ... ON CONFLICT
+-- на весь оператор. Массовая запись (импорт, пакетное создание) не платит за upsert на каждую строку.
+-- PostgreSQL не разрешает таблицы переходов в триггере на несколько событий, поэтому на каждое
+-- событие свой триггер.
+
+-- Обновления учитываются, только если изменились поля, которые видит потребитель ленты:
+-- смена пароля или версии токенов не порождает изменения. Признак удаления ставит только удаление
+-- из users; остальные изменения его не снимают.
+CREATE OR REPLACE FUNCTION record_users_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+        SELECT id, pg_current_xact_id()::TEXT::BIGINT, now(), FALSE
+        FROM new_rows
+        ON CONFLICT (user_id) DO UPDATE
+            SET change_xid = EXCLUDED.change_xid,
+                changed_at = EXCLUDED.changed_at;
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+        SELECT n.id, pg_current_xact_id()::TEXT::BIGINT, now(), FALSE
+        FROM new_rows n
+                 JOIN old_rows o ON o.id = n.id
+        WHERE (o.username, o.email, o.phone_number) IS DISTINCT FROM (n.username, n.email, n.phone_number)
+        ON CONFLICT (user_id) DO UPDATE
+            SET change_xid = EXCLUDED.change_xid,
+                changed_at = EXCLUDED.changed_at;
+    ELSE
+        INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+        SELECT id, pg_current_xact_id()::TEXT::BIGINT, now(), TRUE
+        FROM old_rows
+        ON CONFLICT (user_id) DO UPDATE
+            SET change_xid = EXCLUDED.change_xid,
+                changed_at = EXCLUDED.changed_at,
+                deleted    = TRUE;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_user_data_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+        SELECT user_id, pg_current_xact_id()::TEXT::BIGINT, now(), FALSE
+        FROM new_rows
+        ON CONFLICT (user_id) DO UPDATE
+            SET change_xid = EXCLUDED.change_xid,
+                changed_at = EXCLUDED.changed_at;
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+        SELECT n.user_id, pg_current_xact_id()::TEXT::BIGINT, now(), FALSE
+        FROM new_rows n
+                 JOIN old_rows o ON o.user_id = n.user_id
+        WHERE (o.last_name, o.first_name, o.patronymic, o.date_of_birth, o.avatar_key)
+                  IS DISTINCT FROM (n.last_name, n.first_name, n.patronymic, n.date_of_birth, n.avatar_key)
+        ON CONFLICT (user_id) DO UPDATE
+            SET change_xid = EXCLUDED.change_xid,
+                changed_at = EXCLUDED.changed_at;
+    ELSE
+        INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+        SELECT user_id, pg_current_xact_id()::TEXT::BIGINT, now(), FALSE
+        FROM old_rows
+        ON CONFLICT (user_id) DO UPDATE
+            SET change_xid = EXCLUDED.change_xid,
+                changed_at = EXCLUDED.changed_at;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Строк ролей у пользователя несколько, а ON CONFLICT не может изменить одну строку ленты дважды
+-- за оператор, поэтому id пользователей берутся без повторов.
+CREATE OR REPLACE FUNCTION record_user_roles_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+        SELECT DISTINCT user_id, pg_current_xact_id()::TEXT::BIGINT, now(), FALSE
+        FROM new_rows
+        ON CONFLICT (user_id) DO UPDATE
+            SET change_xid = EXCLUDED.change_xid,
+                changed_at = EXCLUDED.changed_at;
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+        SELECT user_id, pg_current_xact_id()::TEXT::BIGINT, now(), FALSE
+        FROM (SELECT user_id FROM old_rows UNION SELECT user_id FROM new_rows) changed
+        ON CONFLICT (user_id) DO UPDATE
+            SET change_xid = EXCLUDED.change_xid,
+                changed_at = EXCLUDED.changed_at;
+    ELSE
+        INSERT INTO user_changes (user_id, change_xid, changed_at, deleted)
+        SELECT DISTINCT user_id, pg_current_xact_id()::TEXT::BIGINT, now(), FALSE
+        FROM old_rows
+        ON CONFLICT (user_id) DO UPDATE
+            SET change_xid = EXCLUDED.change_xid,
+                changed_at = EXCLUDED.changed_at;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_record_change_on_insert
+    AFTER INSERT ON users
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_users_change();
+CREATE TRIGGER trg_users_record_change_on_update
+    AFTER UPDATE ON users
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_users_change();
+CREATE TRIGGER trg_users_record_change_on_delete
+    AFTER DELETE ON users
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_users_change();
+
+CREATE TRIGGER trg_user_data_record_change_on_insert
+    AFTER INSERT ON user_data
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_user_data_change();
+CREATE TRIGGER trg_user_data_record_change_on_update
+    AFTER UPDATE ON user_data
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_user_data_change();
+CREATE TRIGGER trg_user_data_record_change_on_delete
+    AFTER DELETE ON user_data
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_user_data_change();
+
+CREATE TRIGGER trg_user_roles_record_change_on_insert
+    AFTER INSERT ON user_roles
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_user_roles_change();
+CREATE TRIGGER trg_user_roles_record_change_on_update
+    AFTER UPDATE ON user_roles
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_user_roles_change();
+CREATE TRIGGER trg_user_roles_record_change_on_delete
+    AFTER DELETE ON user_roles
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION record_user_roles_change();
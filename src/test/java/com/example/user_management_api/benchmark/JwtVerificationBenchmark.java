@@ -0,0 +1,88 @@
+package com.example.user_management_api.benchmark;
+
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.secutity.jwt.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение проверки access-токена в фильтре до и после кэширования ключа и парсера.
+ * <p>
+ * {@code legacyValidateThenParse} повторяет прежний путь: декодирование ключа и новый
+ * {@code JwtParser} на каждый вызов, токен разбирается дважды (validate, затем subject).
+ * {@code cachedVerifier} - однократный разбор через {@link JwtUtils#verify(String)}.
+ * <p>
+ * Запуск: {@code mvn test-compile} и затем {@code main} этого класса с тестовым classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtVerificationBenchmark {
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItamF2YS1hcHAtZm9yLXRlc3RpbmctcHJvamVjdA==";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecretString", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "accessTokenDurationMs", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("benchmark");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parser().verifyWith(legacySignInKey()).build().parseSignedClaims(token).getPayload();
+        return Jwts.parser().verifyWith(legacySignInKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String cachedVerifier() {
+        return jwtUtils.verify(token).claims().getSubject();
+    }
+
+    private static SecretKey legacySignInKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.user_management_api.benchmark;
+
+import com.example.user_management_api.model.id.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.postgresql.PGConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Сравнение вставки в таблицу с первичным ключом UUID v4 и UUID v7.
+ * <p>
+ * Таблица заранее заполняется {@code prefillRows} строками, чтобы индекс не помещался в кэш
+ * целиком; одна операция - пакет из {@value #BATCH_SIZE} строк. После прогона выводятся
+ * размер индекса первичного ключа и плотность его листовых страниц ({@code pgstatindex}):
+ * у случайных ключей страницы делятся посередине и остаются заполненными наполовину.
+ * <p>
+ * Нужен Docker (PostgreSQL из Testcontainers). Запуск: {@code mvn test-compile}
+ * и затем {@code main} этого класса с тестовым classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+public class UuidPrimaryKeyInsertBenchmark {
+    private static final int BATCH_SIZE = 1000;
+    private static final int PREFILL_CHUNK = 100_000;
+
+    @Param({"RANDOM_V4", "TIME_ORDERED_V7"})
+    public IdType idType;
+
+    @Param("5000000")
+    public int prefillRows;
+
+    private PostgreSQLContainer<?> postgres;
+
+    public enum IdType {
+        RANDOM_V4(UUID::randomUUID),
+        TIME_ORDERED_V7(UuidV7::next);
+
+        private final Supplier<UUID> generator;
+
+        IdType(Supplier<UUID> generator) {
+            this.generator = generator;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startDatabase() throws SQLException, IOException {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+                .withCommand("postgres", "-c", "shared_buffers=128MB");
+        postgres.start();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pgstattuple");
+            statement.execute("""
+                    CREATE TABLE bench_users (
+                        id         UUID PRIMARY KEY,
+                        email      VARCHAR(255) NOT NULL,
+                        created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+                    )
+                    """);
+            var copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            for (int loaded = 0; loaded < prefillRows; loaded += PREFILL_CHUNK) {
+                copyManager.copyIn("COPY bench_users (id, email) FROM STDIN WITH (FORMAT csv)",
+                        csvRows(Math.min(PREFILL_CHUNK, prefillRows - loaded)));
+            }
+            statement.execute("VACUUM ANALYZE bench_users");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void reportIndexAndStop() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT (SELECT count(*) FROM bench_users) AS row_count,
+                            pg_size_pretty(pg_relation_size('bench_users_pkey')) AS index_size,
+                            s.avg_leaf_density,
+                            s.leaf_fragmentation
+                     FROM pgstatindex('bench_users_pkey') s
+                     """)) {
+            rs.next();
+            System.out.printf("%n%s: rows=%d, pk index=%s, avg leaf density=%.1f%%, leaf fragmentation=%.1f%%%n",
+                    idType, rs.getLong("row_count"), rs.getString("index_size"),
+                    rs.getDouble("avg_leaf_density"), rs.getDouble("leaf_fragmentation"));
+        } finally {
+            postgres.stop();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        private Connection connection;
+        private PreparedStatement insert;
+
+        @Setup(Level.Trial)
+        public void open(UuidPrimaryKeyInsertBenchmark benchmark) throws SQLException {
+            connection = benchmark.connect();
+            insert = connection.prepareStatement("INSERT INTO bench_users (id, email) VALUES (?, ?)");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int insertBatch(Session session) throws SQLException {
+        PreparedStatement insert = session.insert;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            UUID id = idType.generator.get();
+            insert.setObject(1, id);
+            insert.setString(2, id + "@bench.test");
+            insert.addBatch();
+        }
+        return insert.executeBatch().length;
+    }
+
+    private Connection connect() throws SQLException {
+        // Пакет уходит одним многострочным INSERT: измеряется вставка в индекс, а не сетевые обходы
+        return DriverManager.getConnection(postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                postgres.getUsername(), postgres.getPassword());
+    }
+
+    private Reader csvRows(int count) {
+        StringBuilder csv = new StringBuilder(count * 80);
+        for (int i = 0; i < count; i++) {
+            UUID id = idType.generator.get();
+            csv.append(id).append(',').append(id).append("@bench.test\n");
+        }
+        return new StringReader(csv.toString());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UuidPrimaryKeyInsertBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
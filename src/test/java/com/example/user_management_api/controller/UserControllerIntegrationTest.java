@@ -1,12 +1,15 @@
 package com.example.user_management_api.controller;
 
 import com.example.user_management_api.BaseIntegrationTest;
+import com.example.user_management_api.dto.ChangePasswordRequestDto;
 import com.example.user_management_api.dto.CreateUserRequestDto;
+import com.example.user_management_api.dto.UpdateUserDataRequestDto;
 import com.example.user_management_api.dto.UserContactInfoResponseDto;
 import com.example.user_management_api.dto.auth.JwtResponse;
 import com.example.user_management_api.dto.auth.LoginRequest;
 import com.example.user_management_api.repository.RefreshTokenRepository;
 import com.example.user_management_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -88,4 +91,134 @@ public class UserControllerIntegrationTest extends BaseIntegrationTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().username()).isEqualTo("testuser");
     }
+
+    @Test
+    @DisplayName("GET /api/v1/users/{id}/data должен вернуть 304 по ETag, а PUT с устаревшим If-Match - 412")
+    void userData_shouldSupportConditionalRequests() {
+        // --- ARRANGE ---
+        var createUserDto = new CreateUserRequestDto("etaguser", "Doe", "John", null, LocalDate.now(), "etag@example.com", "+124", "password");
+        ResponseEntity<UserContactInfoResponseDto> createResponse = restTemplate.postForEntity("/api/v1/users", createUserDto, UserContactInfoResponseDto.class);
+        String userId = createResponse.getBody().id().toString();
+        ResponseEntity<JwtResponse> loginResponse = restTemplate.postForEntity("/api/auth/signin", new LoginRequest("etaguser", "password"), JwtResponse.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(loginResponse.getBody().accessToken());
+
+        ResponseEntity<String> first = restTemplate.exchange("/api/v1/users/" + userId + "/data",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        String eTag = first.getHeaders().getETag();
+        assertThat(eTag).isNotNull();
+
+        // --- ACT ---
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.addAll(headers);
+        conditional.setIfNoneMatch(eTag);
+        ResponseEntity<String> notModified = restTemplate.exchange("/api/v1/users/" + userId + "/data",
+                HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+
+        HttpHeaders update = new HttpHeaders();
+        update.addAll(headers);
+        update.setIfMatch(eTag);
+        var updateDto = new UpdateUserDataRequestDto("Smith", "Jane", null, null);
+        ResponseEntity<String> updated = restTemplate.exchange("/api/v1/users/" + userId + "/data",
+                HttpMethod.PUT, new HttpEntity<>(updateDto, update), String.class);
+        ResponseEntity<String> stale = restTemplate.exchange("/api/v1/users/" + userId + "/data",
+                HttpMethod.PUT, new HttpEntity<>(updateDto, update), String.class);
+
+        // --- ASSERT ---
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getBody()).isNull();
+        assertThat(updated.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updated.getHeaders().getETag()).isNotEqualTo(eTag);
+        assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    @DisplayName("После смены пароля access-токен, выданный до нее, должен отклоняться и в stateless-режиме")
+    void changePassword_shouldRejectAccessTokenIssuedBefore() {
+        // --- ARRANGE ---
+        var createUserDto = new CreateUserRequestDto("veruser", "Doe", "John", null, LocalDate.now(), "ver@example.com", "+127", "password");
+        ResponseEntity<UserContactInfoResponseDto> createResponse = restTemplate.postForEntity("/api/v1/users", createUserDto, UserContactInfoResponseDto.class);
+        String userUrl = "/api/v1/users/" + createResponse.getBody().id();
+        ResponseEntity<JwtResponse> loginResponse = restTemplate.postForEntity("/api/auth/signin", new LoginRequest("veruser", "password"), JwtResponse.class);
+        HttpHeaders oldHeaders = new HttpHeaders();
+        oldHeaders.setBearerAuth(loginResponse.getBody().accessToken());
+        // Версия учетных данных попадает в кэш версий до смены пароля
+        ResponseEntity<String> beforeChange = restTemplate.exchange(userUrl, HttpMethod.GET, new HttpEntity<>(oldHeaders), String.class);
+
+        // --- ACT ---
+        ResponseEntity<Void> changed = restTemplate.exchange(userUrl + "/password", HttpMethod.PATCH,
+                new HttpEntity<>(new ChangePasswordRequestDto("password", "new-password"), oldHeaders), Void.class);
+        ResponseEntity<String> withOldToken = restTemplate.exchange(userUrl, HttpMethod.GET, new HttpEntity<>(oldHeaders), String.class);
+
+        ResponseEntity<JwtResponse> newLogin = restTemplate.postForEntity("/api/auth/signin", new LoginRequest("veruser", "new-password"), JwtResponse.class);
+        HttpHeaders newHeaders = new HttpHeaders();
+        newHeaders.setBearerAuth(newLogin.getBody().accessToken());
+        ResponseEntity<String> withNewToken = restTemplate.exchange(userUrl, HttpMethod.GET, new HttpEntity<>(newHeaders), String.class);
+
+        // --- ASSERT ---
+        assertThat(beforeChange.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(withOldToken.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(withNewToken.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/users/{id} должен отдать ETag из загруженных данных и вернуть 304 по нему, в том числе для fields")
+    void getUserById_shouldReturnETagMatchingConditionalRequests() {
+        // --- ARRANGE ---
+        var createUserDto = new CreateUserRequestDto("etaguser2", "Doe", "John", null, LocalDate.now(), "etag2@example.com", "+126", "password");
+        ResponseEntity<UserContactInfoResponseDto> createResponse = restTemplate.postForEntity("/api/v1/users", createUserDto, UserContactInfoResponseDto.class);
+        String userUrl = "/api/v1/users/" + createResponse.getBody().id();
+        ResponseEntity<JwtResponse> loginResponse = restTemplate.postForEntity("/api/auth/signin", new LoginRequest("etaguser2", "password"), JwtResponse.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(loginResponse.getBody().accessToken());
+
+        ResponseEntity<String> full = restTemplate.exchange(userUrl, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        ResponseEntity<String> partial = restTemplate.exchange(userUrl + "?fields=username", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        // --- ACT ---
+        HttpHeaders conditionalFull = new HttpHeaders();
+        conditionalFull.addAll(headers);
+        conditionalFull.setIfNoneMatch(full.getHeaders().getETag());
+        ResponseEntity<String> fullNotModified = restTemplate.exchange(userUrl, HttpMethod.GET,
+                new HttpEntity<>(conditionalFull), String.class);
+
+        HttpHeaders conditionalPartial = new HttpHeaders();
+        conditionalPartial.addAll(headers);
+        conditionalPartial.setIfNoneMatch(partial.getHeaders().getETag());
+        ResponseEntity<String> partialNotModified = restTemplate.exchange(userUrl + "?fields=username", HttpMethod.GET,
+                new HttpEntity<>(conditionalPartial), String.class);
+
+        // --- ASSERT ---
+        assertThat(full.getHeaders().getETag()).isNotNull().isNotEqualTo(partial.getHeaders().getETag());
+        assertThat(fullNotModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(fullNotModified.getHeaders().getETag()).isEqualTo(full.getHeaders().getETag());
+        assertThat(partialNotModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(partialNotModified.getHeaders().getETag()).isEqualTo(partial.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/users/slice должен вернуть страницу с признаком следующей и оценкой общего количества")
+    void getUserSlice_withTotalEstimate_shouldReturnSliceAndEstimate() {
+        // --- ARRANGE ---
+        var createUserDto = new CreateUserRequestDto("sliceuser", "Doe", "John", null, LocalDate.now(), "slice@example.com", "+125", "password");
+        restTemplate.postForEntity("/api/v1/users", createUserDto, UserContactInfoResponseDto.class);
+        ResponseEntity<JwtResponse> loginResponse = restTemplate.postForEntity("/api/auth/signin", new LoginRequest("sliceuser", "password"), JwtResponse.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(loginResponse.getBody().accessToken());
+
+        // --- ACT ---
+        ResponseEntity<JsonNode> response = restTemplate.exchange("/api/v1/users/slice?size=10&totalEstimate=true",
+                HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class);
+
+        // --- ASSERT ---
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode body = response.getBody();
+        assertThat(body.get("content")).hasSize(1);
+        assertThat(body.get("content").get(0).get("username").asText()).isEqualTo("sliceuser");
+        assertThat(body.get("hasNext").asBoolean()).isFalse();
+        // Оценка по статистике может отставать от точного количества, но присутствует всегда
+        assertThat(body.get("totalEstimate").isIntegralNumber()).isTrue();
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.user_management_api.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvReaderTest {
+
+    @Test
+    @DisplayName("next должен разбирать поля в кавычках с запятыми, кавычками и переводами строк")
+    void next_shouldParseQuotedFields() throws Exception {
+        // --- ARRANGE ---
+        CsvReader reader = new CsvReader(new StringReader("a,\"b,c\",\"say \"\"hi\"\"\"\r\n\"multi\nline\",,x\nlast"));
+
+        // --- ACT & ASSERT ---
+        assertThat(reader.next()).containsExactly("a", "b,c", "say \"hi\"");
+        assertThat(reader.getRecordLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("multi\nline", "", "x");
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("last");
+        assertThat(reader.getRecordLine()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    @DisplayName("next должен выбрасывать исключение, если кавычка не закрыта")
+    void next_whenQuoteIsNotClosed_shouldThrowException() {
+        // --- ARRANGE ---
+        CsvReader reader = new CsvReader(new StringReader("\"unterminated,field\n"));
+
+        // --- ACT & ASSERT ---
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+
+    @Test
+    @DisplayName("CsvWriter должен записывать значения так, чтобы CsvReader прочитал их обратно")
+    void csvWriter_shouldRoundTripThroughReader() throws Exception {
+        // --- ARRANGE ---
+        StringBuilder csv = new StringBuilder();
+        new CsvWriter(csv).writeRow("plain", "with,comma", "with \"quote\"", null, "");
+
+        // --- ACT ---
+        CsvReader reader = new CsvReader(new StringReader(csv.toString()));
+
+        // --- ASSERT ---
+        assertThat(csv.toString()).isEqualTo("plain,\"with,comma\",\"with \"\"quote\"\"\",,\"\"\n");
+        assertThat(reader.next()).containsExactly("plain", "with,comma", "with \"quote\"", "", "");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.user_management_api.fieldset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UserFieldTest {
+
+    @Test
+    @DisplayName("parse должен вернуть поля в порядке объявления, игнорируя пробелы и повторы")
+    void parse_shouldReturnFieldsInDeclarationOrder() {
+        // --- ACT & ASSERT ---
+        assertThat(UserField.parse(" avatarKey, id,email,id "))
+                .containsExactly(UserField.ID, UserField.EMAIL, UserField.AVATAR_KEY);
+    }
+
+    @Test
+    @DisplayName("parse должен отклонять неизвестные поля и пустой список")
+    void parse_whenFieldUnknownOrEmpty_shouldThrowException() {
+        // --- ACT & ASSERT ---
+        assertThrows(IllegalArgumentException.class, () -> UserField.parse("id,password"));
+        assertThrows(IllegalArgumentException.class, () -> UserField.parse(" , "));
+    }
+
+    @Test
+    @DisplayName("toTag не должен содержать запятых, разделяющих значения If-None-Match")
+    void toTag_shouldNotContainCommas() {
+        // --- ACT & ASSERT ---
+        assertThat(UserField.toTag(UserField.parse("email,id"))).isEqualTo("id+email");
+    }
+}
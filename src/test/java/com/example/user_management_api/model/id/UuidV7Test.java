@@ -0,0 +1,48 @@
+package com.example.user_management_api.model.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UuidV7Test {
+
+    @Test
+    @DisplayName("next должен выдавать UUID версии 7 с вариантом RFC 4122 и текущим временем в старших битах")
+    void next_shouldSetVersionVariantAndTimestamp() {
+        // --- ARRANGE ---
+        long before = System.currentTimeMillis();
+
+        // --- ACT ---
+        UUID uuid = UuidV7.next();
+
+        // --- ASSERT ---
+        long after = System.currentTimeMillis();
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        // Переполнение счетчика может сдвинуть время вперед, но не назад
+        assertThat(timestamp).isBetween(before, after + 1);
+    }
+
+    @Test
+    @DisplayName("next должен выдавать строго возрастающие значения даже в пределах одной миллисекунды")
+    void next_shouldBeStrictlyIncreasing() {
+        // --- ACT ---
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7.next());
+        }
+
+        // --- ASSERT ---
+        // Сравнение старших бит без знака совпадает с порядком байтов в индексе PostgreSQL
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Long.compareUnsigned(ids.get(i).getMostSignificantBits(),
+                    ids.get(i - 1).getMostSignificantBits())).isPositive();
+        }
+    }
+}
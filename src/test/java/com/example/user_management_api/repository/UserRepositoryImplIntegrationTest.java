@@ -0,0 +1,51 @@
+package com.example.user_management_api.repository;
+
+import com.example.user_management_api.BaseIntegrationTest;
+import com.example.user_management_api.pagination.UserSortKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserRepositoryImplIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest
+    @CsvSource({"ID, users_pkey", "EMAIL, uk_users_email", "LAST_NAME, idx_user_data_last_name_user_id"})
+    @DisplayName("Запрос страницы по курсору должен проходить индекс порядка без сортировки и соединений")
+    void keysetSql_shouldWalkSortIndexWithoutSort(UserSortKey sortKey, String indexName) {
+        // --- ARRANGE ---
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("key", "m")
+                .addValue("id", UUID.randomUUID())
+                .addValue("limit", 20);
+
+        // --- ACT ---
+        // На тестовых объемах последовательное и bitmap-чтение дешевле, поэтому они запрещаются,
+        // чтобы план показал, может ли запрос вообще обойтись индексом
+        List<String> plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.getJdbcTemplate().execute("SET LOCAL enable_seqscan = off");
+            jdbcTemplate.getJdbcTemplate().execute("SET LOCAL enable_bitmapscan = off");
+            return jdbcTemplate.queryForList("EXPLAIN " + UserRepositoryImpl.keysetSql(sortKey, true), params, String.class);
+        });
+
+        // --- ASSERT ---
+        assertThat(String.join("\n", plan))
+                .contains(indexName)
+                .doesNotContain("Sort")
+                .doesNotContain("Join")
+                .doesNotContain("Nested Loop");
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.user_management_api.secutity.jwt;
+
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.service.TokenRevocationService;
+import com.example.user_management_api.service.TokenVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JwtAuthFilterTest {
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    private JwtUtils jwtUtils;
+    private JwtAuthFilter jwtAuthFilter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecretString", "c2VjcmV0LWtleS1mb3ItamF2YS1hcHAtZm9yLXRlc3RpbmctcHJvamVjdA==");
+        ReflectionTestUtils.setField(jwtUtils, "accessTokenDurationMs", 600000L);
+        jwtUtils.init();
+
+        jwtAuthFilter = new JwtAuthFilter(jwtUtils, userDetailsService, tokenRevocationService, tokenVersionService);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testuser");
+        user.setPassword("hashedPassword");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        user.setTokenVersion(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("В stateless-режиме фильтр должен аутентифицировать запрос по claims без обращения к UserDetailsService")
+    void doFilter_whenStateless_shouldAuthenticateFromClaims() throws Exception {
+        // --- ARRANGE ---
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessAuth", true);
+        MockHttpServletRequest request = requestWithToken(issueToken(user));
+        when(tokenVersionService.getTokenVersion(user.getId())).thenReturn(OptionalInt.of(3));
+
+        // --- ACT ---
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // --- ASSERT ---
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isEqualTo(new JwtPrincipal(user.getId(), "testuser", 3));
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    @DisplayName("В stateless-режиме фильтр должен отклонить токен, выданный до смены пароля")
+    void doFilter_whenStatelessAndTokenVersionIsOutdated_shouldNotAuthenticate() throws Exception {
+        // --- ARRANGE ---
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessAuth", true);
+        String token = issueToken(user);
+        // Пароль был изменен после выдачи токена: кэш версий отдает новую версию
+        when(tokenVersionService.getTokenVersion(user.getId())).thenReturn(OptionalInt.of(4));
+
+        // --- ACT ---
+        jwtAuthFilter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // --- ASSERT ---
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    @DisplayName("В stateless-режиме фильтр должен отклонить токен удаленного пользователя")
+    void doFilter_whenStatelessAndUserIsMissing_shouldNotAuthenticate() throws Exception {
+        // --- ARRANGE ---
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessAuth", true);
+        String token = issueToken(user);
+        when(tokenVersionService.getTokenVersion(user.getId())).thenReturn(OptionalInt.empty());
+
+        // --- ACT ---
+        jwtAuthFilter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // --- ASSERT ---
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    @DisplayName("В режиме с БД фильтр должен отклонить токен с устаревшей версией учетных данных")
+    void doFilter_whenTokenVersionIsOutdated_shouldNotAuthenticate() throws Exception {
+        // --- ARRANGE ---
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessAuth", false);
+        String token = issueToken(user);
+        user.setTokenVersion(4); // пароль был изменен после выдачи токена
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(user);
+
+        // --- ACT ---
+        jwtAuthFilter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // --- ASSERT ---
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService).loadUserByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("Фильтр должен отклонить отозванный токен")
+    void doFilter_whenTokenIsRevoked_shouldNotAuthenticate() throws Exception {
+        // --- ARRANGE ---
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessAuth", true);
+        String token = issueToken(user);
+        String jti = jwtUtils.getClaims(token).getId();
+        when(tokenRevocationService.isRevoked(jti)).thenReturn(true);
+
+        // --- ACT ---
+        jwtAuthFilter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // --- ASSERT ---
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private String issueToken(User principal) {
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.user_management_api.secutity.jwt;
+
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.secutity.jwt.JwtVerificationResult.FailureReason;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtUtilsTest {
+    private static final String OLD_SECRET = "c2VjcmV0LWtleS1mb3ItamF2YS1hcHAtZm9yLXRlc3RpbmctcHJvamVjdA==";
+    private static final String NEW_SECRET = "YW5vdGhlci1zZWNyZXQta2V5LWZvci1yb3RhdGlvbi10ZXN0aW5nLTEyMw==";
+
+    @Test
+    @DisplayName("verify должен принимать токен, подписанный предыдущим ключом, после ротации")
+    void verify_afterRotation_shouldAcceptTokenSignedWithPreviousKey() {
+        // --- ARRANGE ---
+        String token = issueToken(jwtUtils(OLD_SECRET, "k1", ""));
+        JwtUtils rotated = jwtUtils(NEW_SECRET, "k2", "k1:" + OLD_SECRET);
+
+        // --- ACT ---
+        JwtVerificationResult result = rotated.verify(token);
+
+        // --- ASSERT ---
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.claims().getSubject()).isEqualTo("testuser");
+    }
+
+    @Test
+    @DisplayName("verify должен вернуть UNKNOWN_KEY, если ключ токена выведен из ротации")
+    void verify_whenKeyIdIsRetired_shouldReturnUnknownKey() {
+        // --- ARRANGE ---
+        String token = issueToken(jwtUtils(OLD_SECRET, "k1", ""));
+        JwtUtils rotated = jwtUtils(NEW_SECRET, "k2", "");
+
+        // --- ACT ---
+        JwtVerificationResult result = rotated.verify(token);
+
+        // --- ASSERT ---
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.failureReason()).isEqualTo(FailureReason.UNKNOWN_KEY);
+    }
+
+    @Test
+    @DisplayName("verify должен вернуть MALFORMED для строки, не являющейся JWT")
+    void verify_whenTokenIsMalformed_shouldReturnMalformed() {
+        JwtVerificationResult result = jwtUtils(OLD_SECRET, "k1", "").verify("not-a-jwt");
+
+        assertThat(result.isValid()).isFalse();
+        assertThat(result.failureReason()).isEqualTo(FailureReason.MALFORMED);
+    }
+
+    private JwtUtils jwtUtils(String secret, String keyId, String previousKeys) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecretString", secret);
+        ReflectionTestUtils.setField(jwtUtils, "accessTokenDurationMs", 600000L);
+        ReflectionTestUtils.setField(jwtUtils, "signingKeyId", keyId);
+        ReflectionTestUtils.setField(jwtUtils, "previousKeys", previousKeys);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    private String issueToken(JwtUtils jwtUtils) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testuser");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
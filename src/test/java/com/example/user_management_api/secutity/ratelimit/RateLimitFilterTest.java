@@ -0,0 +1,83 @@
+package com.example.user_management_api.secutity.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+    private RateLimiter rateLimiter;
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Rule signinRule = new RateLimitProperties.Rule();
+        signinRule.setMethod("POST");
+        signinRule.setPattern("/api/auth/signin");
+        signinRule.setPermitsPerMinute(1);
+        signinRule.setBurst(2);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(signinRule));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(meterRegistry);
+        rateLimitFilter = new RateLimitFilter(rateLimiter, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Фильтр должен пропустить burst запросов и ответить 429 с Retry-After на следующий")
+    void doFilter_whenBurstExceeded_shouldRejectWith429() throws Exception {
+        // --- ACT ---
+        int first = filter("POST", "/api/auth/signin", "10.0.0.1").getStatus();
+        int second = filter("POST", "/api/auth/signin", "10.0.0.1").getStatus();
+        MockHttpServletResponse third = filter("POST", "/api/auth/signin", "10.0.0.1");
+        int otherClient = filter("POST", "/api/auth/signin", "10.0.0.2").getStatus();
+
+        // --- ASSERT ---
+        assertThat(first).isEqualTo(200);
+        assertThat(second).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(third.getHeader("Retry-After")).isNotNull();
+        assertThat(third.getContentAsString()).contains("\"statusCode\":429");
+        assertThat(otherClient).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Фильтр не должен ограничивать маршруты без правил")
+    void doFilter_whenNoRuleMatches_shouldPassThrough() throws Exception {
+        // --- ACT & ASSERT ---
+        for (int i = 0; i < 5; i++) {
+            assertThat(filter("GET", "/api/v1/users", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(rateLimiter.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("evictIdle не должен удалять bucket, который еще не восстановился")
+    void evictIdle_shouldKeepBucketsThatAreNotRefilled() throws Exception {
+        // --- ARRANGE ---
+        filter("POST", "/api/auth/signin", "10.0.0.1");
+
+        // --- ACT ---
+        rateLimiter.evictIdle();
+
+        // --- ASSERT ---
+        assertThat(rateLimiter.size()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse filter(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PasswordHashingServiceImplTest {
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingServiceImpl passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingService = new PasswordHashingServiceImpl(1, 1, 2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    @DisplayName("encode и matches должны выполняться на пуле хеширования и записывать латентность")
+    void encodeAndMatches_shouldHashOnPoolAndRecordLatency() {
+        // --- ACT ---
+        String hash = passwordHashingService.encode("password123");
+
+        // --- ASSERT ---
+        assertThat(passwordHashingService.matches("password123", hash)).isTrue();
+        assertThat(passwordHashingService.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("encodeAll должен вернуть хеши в порядке входного списка")
+    void encodeAll_shouldReturnHashesInInputOrder() {
+        // --- ACT ---
+        List<String> hashes = passwordHashingService.encodeAll(List.of("first-password", "second-password", "third-password"));
+
+        // --- ASSERT ---
+        assertThat(hashes).hasSize(3);
+        assertThat(passwordHashingService.matches("first-password", hashes.get(0))).isTrue();
+        assertThat(passwordHashingService.matches("second-password", hashes.get(1))).isTrue();
+        assertThat(passwordHashingService.matches("third-password", hashes.get(2))).isTrue();
+    }
+
+    @Test
+    @DisplayName("encode должен сразу отказать с PasswordHashingOverloadedException, если очередь заполнена")
+    void encode_whenQueueIsFull_shouldFailFast() {
+        // --- ARRANGE ---
+        // Занимаем единственный поток и единственное место в очереди
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordHashingService, "executor");
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> awaitQuietly(release));
+
+        // --- ACT & ASSERT ---
+        PasswordHashingOverloadedException exception = assertThrows(PasswordHashingOverloadedException.class,
+                () -> passwordHashingService.encode("password123"));
+        assertThat(exception.getRetryAfterSeconds()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing.queue.depth").gauge().value()).isEqualTo(1);
+
+        release.countDown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
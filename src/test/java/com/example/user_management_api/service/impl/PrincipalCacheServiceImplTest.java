@@ -0,0 +1,122 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrincipalCacheServiceImplTest {
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCacheServiceImpl principalCacheService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCacheService = new PrincipalCacheServiceImpl(100, Duration.ofMinutes(5), meterRegistry);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testuser");
+        user.setEmail("test@example.com");
+    }
+
+    @Test
+    @DisplayName("getOrLoad должен загрузить пользователя один раз и отдавать его из кэша по username и по email")
+    void getOrLoad_shouldCacheUserUnderUsernameAndEmail() {
+        // --- ARRANGE ---
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, User> loader = identifier -> {
+            loads.incrementAndGet();
+            return user;
+        };
+        principalCacheService.getOrLoad("testuser", loader);
+        principalCacheService.getOrLoad("test@example.com", loader);
+
+        // --- ACT ---
+        User byUsername = principalCacheService.getOrLoad("testuser", loader);
+        User byEmail = principalCacheService.getOrLoad("test@example.com", loader);
+
+        // --- ASSERT ---
+        assertThat(byUsername).isSameAs(user);
+        assertThat(byEmail).isSameAs(user);
+        // Каждый идентификатор загружается один раз
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "principalCache").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("evict должен удалить пользователя из кэша под всеми идентификаторами")
+    void evict_shouldRemoveAllKeys() {
+        // --- ARRANGE ---
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, User> loader = identifier -> {
+            loads.incrementAndGet();
+            return user;
+        };
+        principalCacheService.getOrLoad("testuser", loader);
+
+        // --- ACT ---
+        principalCacheService.evict(user);
+        principalCacheService.getOrLoad("test@example.com", loader);
+
+        // --- ASSERT ---
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("getOrLoad не должен путать пользователей, чьи username отличаются только регистром")
+    void getOrLoad_whenUsernamesDifferOnlyByCase_shouldReturnExactUser() {
+        // --- ARRANGE ---
+        User upper = userNamed("Bob");
+        User lower = userNamed("bob");
+        Map<String, User> users = Map.of("Bob", upper, "bob", lower);
+        Function<String, User> loader = users::get;
+        principalCacheService.getOrLoad("Bob", loader);
+
+        // --- ACT ---
+        User byLowerCase = principalCacheService.getOrLoad("bob", loader);
+        User byUpperCase = principalCacheService.getOrLoad("Bob", loader);
+
+        // --- ASSERT ---
+        assertThat(byLowerCase).isSameAs(lower);
+        assertThat(byUpperCase).isSameAs(upper);
+    }
+
+    @Test
+    @DisplayName("getOrLoad не должен кэшировать пользователя, найденного без учета регистра")
+    void getOrLoad_whenMatchedIgnoringCase_shouldNotCache() {
+        // --- ARRANGE ---
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, User> loader = identifier -> {
+            loads.incrementAndGet();
+            return user;
+        };
+
+        // --- ACT ---
+        principalCacheService.getOrLoad("TestUser", loader);
+        principalCacheService.getOrLoad("TestUser", loader);
+
+        // --- ASSERT ---
+        // Позже может появиться пользователь с точным username "TestUser", и ответ должен смениться
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private static User userNamed(String username) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+}
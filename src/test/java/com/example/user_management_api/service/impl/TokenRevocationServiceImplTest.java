@@ -0,0 +1,93 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.model.RevokedToken;
+import com.example.user_management_api.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TokenRevocationServiceImplTest {
+    private RevokedTokenRepository revokedTokenRepository;
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        tokenRevocationService = new TokenRevocationServiceImpl(revokedTokenRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("revoke должен сохранить отзыв и сразу учитывать его в isRevoked")
+    void revoke_shouldPersistAndBeVisibleImmediately() {
+        // --- ACT ---
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(60));
+
+        // --- ASSERT ---
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isTrue();
+        assertThat(tokenRevocationService.isRevoked("jti-2")).isFalse();
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    @DisplayName("revoke не должен сохранять уже истекший токен")
+    void revoke_whenTokenAlreadyExpired_shouldBeIgnored() {
+        // --- ACT ---
+        tokenRevocationService.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        // --- ASSERT ---
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isFalse();
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("refresh должен загрузить отзывы других узлов и отбросить истекшие")
+    void refresh_shouldLoadActiveAndDropExpiredEntries() {
+        // --- ARRANGE ---
+        tokenRevocationService.revoke("expiring", Instant.now().plusMillis(1));
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any(Instant.class)))
+                .thenReturn(List.of(new RevokedToken("from-db", Instant.now().plusSeconds(60))));
+
+        // --- ACT ---
+        sleepQuietly(5);
+        tokenRevocationService.refresh();
+
+        // --- ASSERT ---
+        assertThat(tokenRevocationService.isRevoked("from-db")).isTrue();
+        assertThat(tokenRevocationService.isRevoked("expiring")).isFalse();
+        verify(revokedTokenRepository).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("refresh не должен терять отзыв, сделанный на этом узле после чтения таблицы")
+    void refresh_shouldKeepLocalRevocationMissingFromTable() {
+        // --- ARRANGE ---
+        // Таблица прочитана до того, как запись о локальном отзыве стала в ней видна
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any(Instant.class))).thenReturn(List.of());
+        tokenRevocationService.revoke("local", Instant.now().plusSeconds(60));
+
+        // --- ACT ---
+        tokenRevocationService.refresh();
+
+        // --- ASSERT ---
+        assertThat(tokenRevocationService.isRevoked("local")).isTrue();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenVersionServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionServiceImpl tokenVersionService;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionService = new TokenVersionServiceImpl(userRepository, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("getTokenVersion должен прочитать версию из БД один раз и затем отдавать ее из кэша")
+    void getTokenVersion_shouldLoadOnceAndServeFromCache() {
+        // --- ARRANGE ---
+        when(userRepository.findTokenVersionById(userId)).thenReturn(Optional.of(3));
+
+        // --- ACT ---
+        OptionalInt first = tokenVersionService.getTokenVersion(userId);
+        OptionalInt second = tokenVersionService.getTokenVersion(userId);
+
+        // --- ASSERT ---
+        assertThat(first).hasValue(3);
+        assertThat(second).hasValue(3);
+        verify(userRepository, times(1)).findTokenVersionById(userId);
+    }
+
+    @Test
+    @DisplayName("evict должен удалить версию из кэша, чтобы следующее чтение увидело новую версию")
+    void evict_shouldForceReloadOfNewVersion() {
+        // --- ARRANGE ---
+        when(userRepository.findTokenVersionById(userId)).thenReturn(Optional.of(3), Optional.of(4));
+        tokenVersionService.getTokenVersion(userId);
+
+        // --- ACT ---
+        tokenVersionService.evict(userId);
+        OptionalInt reloaded = tokenVersionService.getTokenVersion(userId);
+
+        // --- ASSERT ---
+        assertThat(reloaded).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("getTokenVersion не должен кэшировать отсутствие пользователя")
+    void getTokenVersion_whenUserIsMissing_shouldNotCache() {
+        // --- ARRANGE ---
+        when(userRepository.findTokenVersionById(userId)).thenReturn(Optional.empty(), Optional.of(0));
+
+        // --- ACT ---
+        OptionalInt missing = tokenVersionService.getTokenVersion(userId);
+        OptionalInt created = tokenVersionService.getTokenVersion(userId);
+
+        // --- ASSERT ---
+        assertThat(missing).isEmpty();
+        assertThat(created).hasValue(0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.BaseIntegrationTest;
+import com.example.user_management_api.dto.BatchCreateUserResultDto;
+import com.example.user_management_api.dto.BatchCreateUserResultDto.Status;
+import com.example.user_management_api.dto.CreateUserRequestDto;
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.UserData;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.repository.RefreshTokenRepository;
+import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.service.PasswordHashingService;
+import com.example.user_management_api.service.UserBatchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+public class UserBatchServiceImplIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @MockitoSpyBean
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("createUsers должен отклонить только элемент, чей email заняли между проверкой и вставкой")
+    void createUsers_whenEmailTakenConcurrently_shouldFallBackToPerItemInserts() {
+        // --- ARRANGE ---
+        // Конкурирующий запрос успевает создать пользователя, пока пакет хеширует пароли
+        doAnswer(invocation -> {
+            userRepository.save(existingUser("race@test.com"));
+            return invocation.callRealMethod();
+        }).when(passwordHashingService).encodeAll(anyList());
+        List<CreateUserRequestDto> requests = List.of(
+                request("first", "first@test.com", "+7101"),
+                request("second", "race@test.com", "+7102"),
+                request("third", "third@test.com", "+7103"));
+
+        // --- ACT ---
+        List<BatchCreateUserResultDto> results = userBatchService.createUsers(requests);
+
+        // --- ASSERT ---
+        assertThat(results).extracting(BatchCreateUserResultDto::status)
+                .containsExactly(Status.CREATED, Status.FAILED, Status.CREATED);
+        assertThat(results.get(1).error()).contains("already exists");
+        assertThat(userRepository.findByEmail("first@test.com")).isPresent();
+        assertThat(userRepository.findByEmail("third@test.com")).isPresent();
+    }
+
+    private static CreateUserRequestDto request(String username, String email, String phoneNumber) {
+        return new CreateUserRequestDto(username, "Last", "First", null, LocalDate.of(1990, 1, 1),
+                email, phoneNumber, "password");
+    }
+
+    private static User existingUser(String email) {
+        User user = User.builder()
+                .username("racer")
+                .password("hashedPassword")
+                .email(email)
+                .phoneNumber("+7199")
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+        user.setUserData(UserData.builder()
+                .firstName("Race")
+                .lastName("Condition")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .user(user)
+                .build());
+        return user;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.dto.BatchCreateUserResultDto;
+import com.example.user_management_api.dto.BatchCreateUserResultDto.Status;
+import com.example.user_management_api.dto.CreateUserRequestDto;
+import com.example.user_management_api.dto.UserResponseDto;
+import com.example.user_management_api.mapper.UserMapper;
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.UserData;
+import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.repository.projection.UserUniqueKeysRow;
+import com.example.user_management_api.service.PasswordHashingService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserBatchServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserBatchServiceImpl userBatchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userBatchService = new UserBatchServiceImpl(userRepository, userMapper, passwordHashingService,
+                Validation.buildDefaultValidatorFactory().getValidator(), entityManager, transactionManager, 3, 50);
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userMapper.toUserEntity(any())).thenAnswer(invocation -> new User());
+        when(userMapper.toUserDataEntity(any())).thenAnswer(invocation -> new UserData());
+        when(userMapper.toUserResponseDto(any(User.class))).thenReturn(mock(UserResponseDto.class));
+        when(passwordHashingService.encodeAll(anyList()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream().map(p -> "hash").toList());
+    }
+
+    @Test
+    @DisplayName("createUsers должен создать валидные элементы и вернуть ошибки по остальным, не отменяя пакет")
+    void createUsers_shouldReportPerItemResults() {
+        // --- ARRANGE ---
+        var valid = request("valid@test.com", "+1001");
+        var invalid = request("not-an-email", "+1002");
+        var takenInDatabase = request("taken@test.com", "+1003");
+        when(userRepository.findExistingUniqueKeys(any(), any(), any()))
+                .thenReturn(List.of(uniqueKeys("taken@test.com")));
+
+        // --- ACT ---
+        List<BatchCreateUserResultDto> results = userBatchService.createUsers(List.of(valid, invalid, takenInDatabase));
+
+        // --- ASSERT ---
+        assertThat(results).extracting(BatchCreateUserResultDto::status)
+                .containsExactly(Status.CREATED, Status.FAILED, Status.FAILED);
+        assertThat(results.get(1).error()).contains("email");
+        assertThat(results.get(2).error()).contains("email already exists");
+        // Хешируется только прошедший проверки элемент, пакетом
+        verify(passwordHashingService, times(1)).encodeAll(List.of("password123"));
+        verify(entityManager, times(1)).persist(any(User.class));
+    }
+
+    @Test
+    @DisplayName("createUsers не должен резервировать email отклоненного элемента")
+    void createUsers_whenItemRejected_shouldNotReserveItsKeys() {
+        // --- ARRANGE ---
+        // Телефон первого элемента уже занят в БД, а его email свободен
+        when(userRepository.findExistingUniqueKeys(any(), any(), any()))
+                .thenReturn(List.of(new UniqueKeys(null, null, "+1001")));
+
+        // --- ACT ---
+        List<BatchCreateUserResultDto> results = userBatchService.createUsers(List.of(
+                request("same@test.com", "+1001"),
+                request("same@test.com", "+1002")));
+
+        // --- ASSERT ---
+        assertThat(results).extracting(BatchCreateUserResultDto::status).containsExactly(Status.FAILED, Status.CREATED);
+        assertThat(results.get(0).error()).contains("phoneNumber");
+    }
+
+    @Test
+    @DisplayName("createUsers должен отклонить повторяющийся внутри пакета email")
+    void createUsers_whenEmailRepeatsInBatch_shouldRejectSecondOccurrence() {
+        // --- ARRANGE ---
+        when(userRepository.findExistingUniqueKeys(any(), any(), any())).thenReturn(List.of());
+
+        // --- ACT ---
+        List<BatchCreateUserResultDto> results = userBatchService.createUsers(List.of(
+                request("same@test.com", "+1001"),
+                request("same@test.com", "+1002")));
+
+        // --- ASSERT ---
+        assertThat(results).extracting(BatchCreateUserResultDto::status).containsExactly(Status.CREATED, Status.FAILED);
+    }
+
+    @Test
+    @DisplayName("createUsers должен отклонить пакет больше допустимого размера")
+    void createUsers_whenBatchTooLarge_shouldThrow() {
+        // --- ACT & ASSERT ---
+        assertThrows(IllegalArgumentException.class, () -> userBatchService.createUsers(List.of(
+                request("a@test.com", "+1"), request("b@test.com", "+2"),
+                request("c@test.com", "+3"), request("d@test.com", "+4"))));
+    }
+
+    private static CreateUserRequestDto request(String email, String phoneNumber) {
+        return new CreateUserRequestDto(null, "Last", "First", null, LocalDate.of(1990, 1, 1),
+                email, phoneNumber, "password123");
+    }
+
+    private static UserUniqueKeysRow uniqueKeys(String email) {
+        return new UniqueKeys(null, email, null);
+    }
+
+    private record UniqueKeys(String getUsername, String getEmail, String getPhoneNumber) implements UserUniqueKeysRow {
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCountServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("estimateUserCount должен брать оценку из статистики и кэшировать ее")
+    void estimateUserCount_shouldUseStatisticsAndCacheIt() {
+        // --- ARRANGE ---
+        UserCountServiceImpl userCountService = new UserCountServiceImpl(userRepository, Duration.ofMinutes(1));
+        when(userRepository.findEstimatedCount()).thenReturn(1_000_000L);
+
+        // --- ACT ---
+        long first = userCountService.estimateUserCount();
+        long second = userCountService.estimateUserCount();
+
+        // --- ASSERT ---
+        assertThat(first).isEqualTo(1_000_000L);
+        assertThat(second).isEqualTo(1_000_000L);
+        verify(userRepository, times(1)).findEstimatedCount();
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("estimateUserCount должен посчитать пользователей точно, если статистики еще нет")
+    void estimateUserCount_whenNotAnalyzed_shouldFallBackToExactCount() {
+        // --- ARRANGE ---
+        UserCountServiceImpl userCountService = new UserCountServiceImpl(userRepository, Duration.ofMinutes(1));
+        when(userRepository.findEstimatedCount()).thenReturn(-1L);
+        when(userRepository.count()).thenReturn(42L);
+
+        // --- ACT & ASSERT ---
+        assertThat(userCountService.estimateUserCount()).isEqualTo(42L);
+    }
+}
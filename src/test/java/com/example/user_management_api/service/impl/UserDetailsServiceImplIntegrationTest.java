@@ -0,0 +1,91 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.BaseIntegrationTest;
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.UserData;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.repository.RefreshTokenRepository;
+import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.service.PrincipalCacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserDetailsServiceImplIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PrincipalCacheService principalCacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = User.builder()
+                .username("login_user")
+                .password("hashedPassword")
+                .email("login@test.com")
+                .phoneNumber("+77777")
+                .roles(Set.of(Role.ROLE_USER, Role.ROLE_ADMIN))
+                .build();
+        UserData userData = UserData.builder()
+                .firstName("Login")
+                .lastName("User")
+                .dateOfBirth(LocalDate.now())
+                .user(user)
+                .build();
+        user.setUserData(userData);
+        userRepository.save(user);
+        // Пользователь мог остаться в кэше после предыдущего теста
+        principalCacheService.evict(user);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername по email должен загрузить пользователя вместе с ролями одним запросом")
+    void loadUserByUsername_byEmail_shouldIssueSingleQuery() {
+        // --- ACT ---
+        UserDetails userDetails = userDetailsService.loadUserByUsername("login@test.com");
+
+        // --- ASSERT ---
+        assertThat(userDetails.getUsername()).isEqualTo("login_user");
+        assertThat(userDetails.getAuthorities()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername должен находить пользователя без учета регистра одним запросом")
+    void loadUserByUsername_caseInsensitive_shouldIssueSingleQuery() {
+        // --- ACT ---
+        UserDetails userDetails = userDetailsService.loadUserByUsername("LOGIN_USER");
+
+        // --- ASSERT ---
+        assertThat(userDetails.getUsername()).isEqualTo("login_user");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
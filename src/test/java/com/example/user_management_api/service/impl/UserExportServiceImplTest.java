@@ -0,0 +1,97 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.service.UserExportService.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.mockito.Answers.RETURNS_SELF;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserExportServiceImplTest {
+    private static final UUID FIRST_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private Query query;
+
+    private UserExportServiceImpl userExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        userExportService = new UserExportServiceImpl(entityManager, transactionManager, objectMapper, 500);
+
+        query = mock(Query.class, RETURNS_SELF);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(query.getResultStream()).thenAnswer(invocation -> Stream.of(
+                new Object[]{FIRST_ID, "first", "first@test.com", "+1001", "Ivan", "Ivanov", null,
+                        Date.valueOf(LocalDate.of(1990, 1, 2)), null, "ROLE_ADMIN,ROLE_USER"},
+                new Object[]{SECOND_ID, "second", "second@test.com", "+1002", "Petr", "Petrov, Jr.", "\"P\"",
+                        Date.valueOf(LocalDate.of(1985, 5, 6)), "avatar-key", null}));
+    }
+
+    @Test
+    @DisplayName("exportUsers в NDJSON должен писать по одному объекту на строку и читать с заданным fetch size")
+    void exportUsers_ndjson_shouldWriteOneObjectPerLine() throws Exception {
+        // --- ARRANGE ---
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // --- ACT ---
+        userExportService.exportUsers(Format.NDJSON, out);
+
+        // --- ASSERT ---
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":\"" + FIRST_ID + "\"", "\"dateOfBirth\":\"1990-01-02\"",
+                "\"roles\":[\"ROLE_USER\",\"ROLE_ADMIN\"]");
+        assertThat(lines[1]).contains("\"username\":\"second\"", "\"roles\":[]");
+        verify(query).setHint(HINT_FETCH_SIZE, 500);
+    }
+
+    @Test
+    @DisplayName("exportUsers в CSV должен писать заголовок и экранировать запятые и кавычки")
+    void exportUsers_csv_shouldWriteHeaderAndEscapeValues() throws Exception {
+        // --- ARRANGE ---
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // --- ACT ---
+        userExportService.exportUsers(Format.CSV, out);
+
+        // --- ASSERT ---
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).containsExactly(
+                "id,username,email,phoneNumber,firstName,lastName,patronymic,dateOfBirth,avatarKey,roles",
+                FIRST_ID + ",first,first@test.com,+1001,Ivan,Ivanov,,1990-01-02,,\"ROLE_ADMIN,ROLE_USER\"",
+                SECOND_ID + ",second,second@test.com,+1002,Petr,\"Petrov, Jr.\",\"\"\"P\"\"\",1985-05-06,avatar-key,");
+    }
+}
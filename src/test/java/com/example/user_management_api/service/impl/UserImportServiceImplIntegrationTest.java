@@ -0,0 +1,141 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.BaseIntegrationTest;
+import com.example.user_management_api.dto.UserImportResultDto;
+import com.example.user_management_api.dto.UserImportResultDto.RowError;
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.UserData;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.repository.RefreshTokenRepository;
+import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.service.PasswordHashingService;
+import com.example.user_management_api.service.UserImportService;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserImportServiceImplIntegrationTest extends BaseIntegrationTest {
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        // В транзакции теста удаления иначе выполнятся при flush после вставки ниже и нарушат уникальность
+        userRepository.flush();
+
+        User existing = User.builder()
+                .username("existing")
+                .password("hashedPassword")
+                .email("existing@test.com")
+                .phoneNumber("+70000")
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+        existing.setUserData(UserData.builder()
+                .firstName("Existing")
+                .lastName("User")
+                .dateOfBirth(LocalDate.now())
+                .user(existing)
+                .build());
+        // Импорт работает через JDBC в той же транзакции и должен видеть эту запись в таблице
+        userRepository.saveAndFlush(existing);
+    }
+
+    @Test
+    @Transactional
+    @DisplayName("importUsers должен создать корректные записи и сообщить о конфликтах и ошибках по строкам")
+    void importUsers_shouldImportValidRowsAndReportFailures() throws Exception {
+        // --- ARRANGE ---
+        String csv = """
+                username,password,email,phoneNumber,firstName,lastName,patronymic,dateOfBirth,roles
+                imported1,password123,imported1@test.com,+70001,Ivan,"Ivanov, Jr.",,1990-01-02,
+                imported2,password123,imported2@test.com,+70002,Petr,Petrov,Petrovich,1985-05-06,"ROLE_USER,ROLE_ADMIN"
+                duplicate,password123,existing@test.com,+70003,Anna,Sidorova,,1991-03-04,
+                sameFile,password123,imported1@test.com,+70004,Oleg,Olegov,,1992-03-04,
+                invalid,short,invalid@test.com,+70005,Olga,Orlova,,1993-03-04,
+                """;
+
+        // --- ACT ---
+        UserImportResultDto result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // --- ASSERT ---
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(3);
+        assertThat(result.errors()).extracting(RowError::line).containsExactly(4L, 5L, 6L);
+        assertThat(result.errors().get(0).error()).contains("email already exists");
+        assertThat(result.errors().get(1).error()).contains("email already exists");
+        assertThat(result.errors().get(2).error()).contains("password");
+
+        User imported = userRepository.findByEmail("imported2@test.com").orElseThrow();
+        assertThat(imported.getRoles()).containsExactlyInAnyOrder(Role.ROLE_USER, Role.ROLE_ADMIN);
+        assertThat(imported.getUserData().getPatronymic()).isEqualTo("Petrovich");
+        assertThat(passwordEncoder.matches("password123", imported.getPassword())).isTrue();
+        assertThat(userRepository.findByEmail("imported1@test.com").orElseThrow()
+                .getUserData().getLastName()).isEqualTo("Ivanov, Jr.");
+    }
+
+    @Test
+    @DisplayName("importUsers должен переносить файл порциями в отдельных транзакциях и находить конфликты между порциями")
+    void importUsers_withSmallChunks_shouldCommitEachChunkAndReportCrossChunkConflicts() throws Exception {
+        // --- ARRANGE ---
+        UserImportService chunkedImportService = new UserImportServiceImpl(jdbcTemplate, passwordHashingService,
+                validator, transactionManager, 2, 1000);
+        String csv = """
+                username,password,email,phoneNumber,firstName,lastName,patronymic,dateOfBirth,roles
+                chunk1,password123,chunk1@test.com,+70011,Ivan,Ivanov,,1990-01-02,
+                chunk2,password123,chunk2@test.com,+70012,Petr,Petrov,,1990-01-02,
+                chunk3,password123,chunk3@test.com,+70013,Anna,Sidorova,,1990-01-02,
+                repeated,password123,chunk1@test.com,+70014,Oleg,Olegov,,1990-01-02,
+                chunk5,password123,chunk5@test.com,+70015,Olga,Orlova,,1990-01-02,
+                """;
+
+        // --- ACT ---
+        UserImportResultDto result = chunkedImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // --- ASSERT ---
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.imported()).isEqualTo(4);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.errors()).extracting(RowError::line).containsExactly(5L);
+        assertThat(result.errors().get(0).error()).contains("email already exists");
+        assertThat(userRepository.findByEmail("chunk5@test.com")).isPresent();
+    }
+}
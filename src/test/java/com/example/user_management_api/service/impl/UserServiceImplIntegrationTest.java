@@ -0,0 +1,310 @@
+package com.example.user_management_api.service.impl;
+
+import com.example.user_management_api.BaseIntegrationTest;
+import com.example.user_management_api.dto.CursorPageResponseDto;
+import com.example.user_management_api.dto.UpdateUserDataRequestDto;
+import com.example.user_management_api.dto.UserChangeDto;
+import com.example.user_management_api.dto.UserChangesResponseDto;
+import com.example.user_management_api.dto.UserDataResponseDto;
+import com.example.user_management_api.dto.UserLookupResponseDto;
+import com.example.user_management_api.dto.UserResponseDto;
+import com.example.user_management_api.dto.VersionedDto;
+import com.example.user_management_api.fieldset.UserField;
+import com.example.user_management_api.model.User;
+import com.example.user_management_api.model.UserData;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.pagination.UserSortKey;
+import com.example.user_management_api.repository.RefreshTokenRepository;
+import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserServiceImplIntegrationTest extends BaseIntegrationTest {
+    private static final int USER_COUNT = 12;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = User.builder()
+                    .username("user" + i)
+                    .password("hashedPassword")
+                    .email(String.format("user%02d@test.com", i))
+                    .phoneNumber("+7000" + i)
+                    .roles(Set.of(Role.ROLE_USER, Role.ROLE_ADMIN))
+                    .build();
+            UserData userData = UserData.builder()
+                    .firstName("First" + i)
+                    .lastName(String.format("Last%02d", USER_COUNT - i))
+                    .dateOfBirth(LocalDate.now())
+                    .user(user)
+                    .build();
+            user.setUserData(userData);
+            userRepository.save(user);
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("getAllUsers должен загружать страницу фиксированным числом запросов независимо от ее размера")
+    void getAllUsers_shouldUseConstantNumberOfQueries() {
+        // --- ACT ---
+        Page<UserResponseDto> page = userService.getAllUsers(PageRequest.of(1, 5, Sort.by("email")));
+
+        // --- ASSERT ---
+        assertThat(page.getTotalElements()).isEqualTo(USER_COUNT);
+        assertThat(page.getContent()).extracting(UserResponseDto::email)
+                .containsExactly("user05@test.com", "user06@test.com", "user07@test.com", "user08@test.com", "user09@test.com");
+        assertThat(page.getContent()).allSatisfy(user -> assertThat(user.roles()).hasSize(2));
+        // Страница id, count и одна пакетная загрузка UserData с ролями
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("getUserSlice должен загружать страницу без запроса count")
+    void getUserSlice_shouldNotCountUsers() {
+        // --- ACT ---
+        Slice<UserResponseDto> slice = userService.getUserSlice(PageRequest.of(2, 5, Sort.by("email")));
+
+        // --- ASSERT ---
+        assertThat(slice.getContent()).extracting(UserResponseDto::email)
+                .containsExactly("user10@test.com", "user11@test.com");
+        assertThat(slice.hasNext()).isFalse();
+        // Страница id с одной лишней записью и пакетная загрузка, без count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("getUsersByCursor должен обойти всех пользователей по lastName без повторов и пропусков")
+    void getUsersByCursor_shouldTraverseAllUsersByLastName() {
+        // --- ACT ---
+        CursorPageResponseDto<UserResponseDto> first = userService.getUsersByCursor(UserSortKey.LAST_NAME, null, 5);
+        CursorPageResponseDto<UserResponseDto> second = userService.getUsersByCursor(UserSortKey.LAST_NAME, first.nextCursor(), 5);
+        CursorPageResponseDto<UserResponseDto> third = userService.getUsersByCursor(UserSortKey.LAST_NAME, second.nextCursor(), 5);
+
+        // --- ASSERT ---
+        assertThat(first.content()).extracting(UserResponseDto::lastName)
+                .containsExactly("Last01", "Last02", "Last03", "Last04", "Last05");
+        assertThat(second.content()).extracting(UserResponseDto::lastName)
+                .containsExactly("Last06", "Last07", "Last08", "Last09", "Last10");
+        assertThat(third.content()).extracting(UserResponseDto::lastName).containsExactly("Last11", "Last12");
+        assertThat(third.hasNext()).isFalse();
+        // По два запроса на страницу: keyset-выборка id и пакетная загрузка
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("searchUsers должен ставить совпадение по префиксу первым и загружать результат двумя запросами")
+    void searchUsers_shouldRankPrefixMatchFirst() {
+        // --- ACT ---
+        List<UserResponseDto> result = userService.searchUsers("USER07@", 5);
+
+        // --- ASSERT ---
+        assertThat(result).isNotEmpty().hasSizeLessThanOrEqualTo(5);
+        assertThat(result.get(0).email()).isEqualTo("user07@test.com");
+        // Поиск id по триграммным индексам и пакетная загрузка
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("searchIds должен брать из каждого индекса ближайших кандидатов, а не первых попавшихся")
+    void searchIds_whenCandidatesLimited_shouldKeepClosestMatch() {
+        // --- ARRANGE ---
+        // С опечаткой нечетко совпадают все фамилии LastNN, но ближе всех Last07 (у пользователя user05)
+        UUID closest = userRepository.findByEmail("user05@test.com").orElseThrow().getId();
+
+        // --- ACT ---
+        List<UUID> ids = userRepository.searchIds("lasst07", "lasst07%", 1, 5);
+
+        // --- ASSERT ---
+        assertThat(ids).containsExactly(closest);
+    }
+
+    @Test
+    @DisplayName("Идентификаторы пользователей должны быть UUID v7 и возрастать в порядке создания")
+    void createdUsers_shouldHaveTimeOrderedIds() {
+        // --- ACT ---
+        CursorPageResponseDto<UserResponseDto> page = userService.getUsersByCursor(UserSortKey.ID, null, USER_COUNT);
+
+        // --- ASSERT ---
+        assertThat(page.content()).extracting(user -> user.id().version()).containsOnly(7);
+        assertThat(page.content()).extracting(UserResponseDto::email)
+                .containsExactly(IntStream.range(0, USER_COUNT)
+                        .mapToObj(i -> String.format("user%02d@test.com", i))
+                        .toArray(String[]::new));
+    }
+
+    @Test
+    @DisplayName("getAllUsers с набором полей должен вернуть только эти поля и не читать роли без запроса")
+    void getAllUsers_withFields_shouldReturnOnlyRequestedFields() {
+        // --- ACT ---
+        Page<Map<String, Object>> page = userService.getAllUsers(PageRequest.of(0, 5, Sort.by("email")),
+                UserField.parse("email,avatarKey,id"));
+
+        // --- ASSERT ---
+        assertThat(page.getTotalElements()).isEqualTo(USER_COUNT);
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getContent().get(0)).containsOnlyKeys("id", "email", "avatarKey")
+                .containsEntry("email", "user00@test.com");
+        // Страница id, count и выборка трех колонок; запроса к user_roles нет
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("getVersionedUserFieldsById с ролями должен прочитать версии вместе с полями и дочитать роли отдельным запросом")
+    void getVersionedUserFieldsById_withRoles_shouldLoadRolesSeparately() {
+        // --- ARRANGE ---
+        UUID id = userRepository.findByEmail("user05@test.com").orElseThrow().getId();
+        String expectedTag = userService.getUserVersionTag(id);
+        statistics.clear();
+
+        // --- ACT ---
+        VersionedDto<Map<String, Object>> user = userService.getVersionedUserFieldsById(id, UserField.parse("username,roles"));
+
+        // --- ASSERT ---
+        assertThat(user.body()).containsOnlyKeys("username", "roles").containsEntry("username", "user5");
+        assertThat(user.body().get("roles")).isEqualTo(Set.of(Role.ROLE_USER, Role.ROLE_ADMIN));
+        assertThat(user.versionTag()).isEqualTo(expectedTag);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("lookupUsers должен загрузить пользователей одним запросом в порядке запроса и перечислить ненайденные")
+    void lookupUsers_shouldLoadInRequestOrderWithSingleQuery() {
+        // --- ARRANGE ---
+        UUID third = userRepository.findByEmail("user03@test.com").orElseThrow().getId();
+        UUID first = userRepository.findByEmail("user01@test.com").orElseThrow().getId();
+        UUID missing = UUID.randomUUID();
+        statistics.clear();
+
+        // --- ACT ---
+        UserLookupResponseDto result = userService.lookupUsers(List.of(third, missing, first, third));
+
+        // --- ASSERT ---
+        assertThat(result.users()).extracting(UserResponseDto::id).containsExactly(third, first);
+        assertThat(result.users().get(0).firstName()).isEqualTo("First3");
+        assertThat(result.users().get(0).dateOfBirth()).isEqualTo(LocalDate.now());
+        assertThat(result.users()).allSatisfy(user -> assertThat(user.roles())
+                .containsExactlyInAnyOrder(Role.ROLE_USER, Role.ROLE_ADMIN));
+        assertThat(result.notFound()).containsExactly(missing);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("getUserChanges должен после курсора выдать только измененных и удаленных пользователей")
+    void getUserChanges_afterCursor_shouldReturnOnlyChangedAndDeletedUsers() {
+        // --- ARRANGE ---
+        // Лента с начала содержит и tombstone'ы пользователей из предыдущих тестов
+        List<UserChangeDto> initial = new ArrayList<>();
+        UserChangesResponseDto portion = userService.getUserChanges(null, 5);
+        initial.addAll(portion.changes());
+        while (portion.hasMore()) {
+            portion = userService.getUserChanges(portion.nextCursor(), 5);
+            initial.addAll(portion.changes());
+        }
+        String cursor = portion.nextCursor();
+        UUID changedId = userRepository.findByEmail("user05@test.com").orElseThrow().getId();
+        UUID deletedId = userRepository.findByEmail("user07@test.com").orElseThrow().getId();
+        userService.setAvatar(changedId, "avatars/new.png");
+        userService.deleteUser(deletedId);
+
+        // --- ACT ---
+        UserChangesResponseDto changes = userService.getUserChanges(cursor, 100);
+
+        // --- ASSERT ---
+        assertThat(initial).filteredOn(change -> !change.deleted()).hasSize(USER_COUNT);
+        assertThat(changes.changes()).extracting(UserChangeDto::id).containsExactly(changedId, deletedId);
+        assertThat(changes.changes().get(0).user().avatarKey()).isEqualTo("avatars/new.png");
+        assertThat(changes.changes().get(1).deleted()).isTrue();
+        assertThat(changes.changes().get(1).user()).isNull();
+        assertThat(changes.hasMore()).isFalse();
+        assertThat(userService.getUserChanges(changes.nextCursor(), 100).changes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Повторное чтение пользователя по id не должно обращаться к БД благодаря кэшу второго уровня")
+    void readsById_whenRepeated_shouldBeServedFromSecondLevelCache() {
+        // --- ARRANGE ---
+        UUID id = userRepository.findByEmail("user03@test.com").orElseThrow().getId();
+        userService.getUserById(id);
+        String expectedTag = userService.getUserVersionTag(id);
+        statistics.clear();
+
+        // --- ACT ---
+        UserResponseDto user = userService.getUserById(id);
+        VersionedDto<UserResponseDto> versioned = userService.getVersionedUserById(id);
+
+        // --- ASSERT ---
+        assertThat(user.roles()).hasSize(2);
+        // Метка версии для ETag берется из сущностей в кэше, без отдельного запроса версий
+        assertThat(versioned.body()).isEqualTo(user);
+        assertThat(versioned.versionTag()).isEqualTo(expectedTag);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Изменение аватара и данных должно выполняться одним запросом и не оставлять устаревших данных в кэше")
+    void avatarAndDataUpdates_shouldIssueSingleStatementAndRefreshCache() {
+        // --- ARRANGE ---
+        UUID id = userRepository.findByEmail("user04@test.com").orElseThrow().getId();
+        UserDataResponseDto before = userService.getUserData(id);
+        // Сущность UserData попадает в кэш второго уровня
+        userService.getUserById(id);
+        statistics.clear();
+
+        // --- ACT ---
+        userService.setAvatar(id, "avatar-1");
+        String removedKey = userService.removeAvatar(id);
+        UserDataResponseDto updated = userService.updateUser(id,
+                new UpdateUserDataRequestDto("Renamed", null, null, null), before.version() + 2);
+
+        // --- ASSERT ---
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(removedKey).isEqualTo("avatar-1");
+        assertThat(updated.lastName()).isEqualTo("Renamed");
+        assertThat(updated.firstName()).isEqualTo(before.firstName());
+        assertThat(updated.version()).isEqualTo(before.version() + 3);
+        assertThat(userService.getUserData(id)).isEqualTo(updated);
+        // Запись UserData в кэше второго уровня вытеснена и не возвращает прежнюю фамилию
+        assertThat(userService.getUserById(id).lastName()).isEqualTo("Renamed");
+    }
+}
@@ -1,18 +1,34 @@
 package com.example.user_management_api.service.impl;
 
 import com.example.user_management_api.dto.CreateUserRequestDto;
+import com.example.user_management_api.dto.CursorPageResponseDto;
 import com.example.user_management_api.dto.UpdateUserDataRequestDto;
 import com.example.user_management_api.dto.UserContactInfoResponseDto;
 import com.example.user_management_api.dto.UserDataResponseDto;
+import com.example.user_management_api.dto.UserLookupResponseDto;
 import com.example.user_management_api.dto.UserResponseDto;
+import com.example.user_management_api.dto.VersionedDto;
+import com.example.user_management_api.exception.PreconditionFailedException;
 import com.example.user_management_api.exception.UserNotFoundException;
 import com.example.user_management_api.mapper.UserMapper;
 import com.example.user_management_api.model.User;
 import com.example.user_management_api.model.UserData;
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.pagination.KeysetCursor;
+import com.example.user_management_api.pagination.UserSortKey;
+import com.example.user_management_api.repository.UserDataRepository;
 import com.example.user_management_api.repository.UserRepository;
+import com.example.user_management_api.repository.projection.UserContactInfoRow;
+import com.example.user_management_api.repository.projection.UserLookupRow;
+import com.example.user_management_api.repository.projection.UserVersionRow;
+import com.example.user_management_api.service.PrincipalCacheService;
+import com.example.user_management_api.service.RefreshTokenService;
+import com.example.user_management_api.service.TokenVersionService;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -21,11 +37,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -39,12 +59,27 @@ public class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserDataRepository userDataRepository;
+
     @Mock
     private UserMapper userMapper;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCacheService principalCacheService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManagerFactory entityManagerFactory;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -94,18 +129,14 @@ public class UserServiceImplTest {
     }
 
     @Test
-    @DisplayName("getUserContactInfo должен вернуть DTO с контактной информацией, если пользователь найден")
+    @DisplayName("getUserContactInfo должен собрать DTO с контактной информацией из строк проекции")
     void getUserContactInfo_whenUserExists_shouldReturnContactInfoDto() {
         // --- ARRANGE ---
         UUID userId = UUID.randomUUID();
-        User foundUser = new User(); // Создаем "найденного" пользователя
-        foundUser.setId(userId);
-
-        UserContactInfoResponseDto expectedDto = new UserContactInfoResponseDto(userId, "test", "test@test.com", null, null);
-
-        // Настраиваем моки: репозиторий находит пользователя, маппер его преобразует
-        when(userRepository.findById(userId)).thenReturn(Optional.of(foundUser));
-        when(userMapper.toUserContactInfoDto(foundUser)).thenReturn(expectedDto);
+        // Проекция возвращает по строке на каждую роль пользователя
+        when(userRepository.findContactInfoRowsById(userId)).thenReturn(List.of(
+                contactInfoRow(userId, Role.ROLE_USER),
+                contactInfoRow(userId, Role.ROLE_ADMIN)));
 
         // --- ACT ---
         UserContactInfoResponseDto actualDto = userService.getUserContactInfo(userId);
@@ -113,8 +144,9 @@ public class UserServiceImplTest {
         // --- ASSERT ---
         assertThat(actualDto).isNotNull();
         assertThat(actualDto.id()).isEqualTo(userId);
-        verify(userRepository, times(1)).findById(userId);
-        verify(userMapper, times(1)).toUserContactInfoDto(foundUser);
+        assertThat(actualDto.email()).isEqualTo("test@test.com");
+        assertThat(actualDto.roles()).containsExactlyInAnyOrder(Role.ROLE_USER, Role.ROLE_ADMIN);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -122,17 +154,30 @@ public class UserServiceImplTest {
     void getUserContactInfo_whenUserDoesNotExist_shouldThrowUserNotFoundException() {
         // --- ARRANGE ---
         UUID userId = UUID.randomUUID();
-        // Настраиваем мок репозитория: он возвращает пустой Optional
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        // Настраиваем мок репозитория: проекция не вернула ни одной строки
+        when(userRepository.findContactInfoRowsById(userId)).thenReturn(List.of());
 
         // --- ACT & ASSERT ---
         // Проверяем, что вызов метода приводит к выбросу нужного исключения
         assertThrows(UserNotFoundException.class, () -> {
             userService.getUserContactInfo(userId);
         });
+    }
+
+    @Test
+    @DisplayName("getUserData должен вернуть DTO из проекции без загрузки сущности")
+    void getUserData_whenDataExists_shouldReturnProjectedDto() {
+        // --- ARRANGE ---
+        UUID userId = UUID.randomUUID();
+        var expectedDto = new UserDataResponseDto(userId, "First", "Last", null, LocalDate.now(), null, 0L);
+        when(userDataRepository.findDtoByUserId(userId)).thenReturn(Optional.of(expectedDto));
 
-        // Убедимся, что маппер даже не был вызван
-        verify(userMapper, never()).toUserContactInfoDto(any());
+        // --- ACT ---
+        UserDataResponseDto actualDto = userService.getUserData(userId);
+
+        // --- ASSERT ---
+        assertThat(actualDto).isEqualTo(expectedDto);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -172,49 +217,279 @@ public class UserServiceImplTest {
 
 
     @Test
-    @DisplayName("updateUserData должен обновить данные пользователя и вернуть DTO")
+    @DisplayName("updateUserData должен обновить данные одним запросом и вернуть DTO")
     void updateUserData_shouldUpdateDataAndReturnDto() {
         // --- ARRANGE ---
         UUID userId = UUID.randomUUID();
         var requestDto = new UpdateUserDataRequestDto("NewLastName", "NewFirstName", null, null);
 
-        // Создаем существующие сущности, которые якобы лежат в базе
-        UserData existingUserData = new UserData();
-        existingUserData.setFirstName("OldFirstName");
-        existingUserData.setLastName("OldLastName");
+        // Строка, которую вернет UPDATE ... RETURNING
+        UserData updatedUserData = new UserData();
+        updatedUserData.setFirstName("NewFirstName");
+        updatedUserData.setLastName("NewLastName");
+        updatedUserData.setVersion(1);
 
-        User existingUser = new User();
-        existingUser.setId(userId);
-        existingUser.setUserData(existingUserData);
+        var responseDto = new UserDataResponseDto(userId, "NewFirstName", "NewLastName", null, null, null, 1L);
+        when(userDataRepository.updateFields(userId, "NewLastName", "NewFirstName", null, null, null))
+                .thenReturn(Optional.of(updatedUserData));
+        when(userMapper.toUserDataDto(updatedUserData)).thenReturn(responseDto);
 
-        // Создаем DTO, который якобы вернет маппер
-        var responseDto = new UserDataResponseDto(userId, "NewFirstName", "NewLastName", null, null, null);
+        // --- ACT ---
+        UserDataResponseDto actualResponse = userService.updateUser(userId, requestDto, null);
 
-        // Настраиваем поведение моков:
-        // 1. Репозиторий находит пользователя
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        // --- ASSERT ---
+        assertThat(actualResponse).isEqualTo(responseDto);
+        // Сущности не загружаются и не сравниваются при flush
+        verify(userRepository, never()).findById(any());
+        verify(userMapper, never()).updateUserDataFromDto(any(), any());
+        verify(entityManagerFactory.getCache()).evict(UserData.class, userId);
+    }
 
-        // 2. void метод маппера просто ничего не делает (но мы проверим, что он был вызван)
-        doNothing().when(userMapper).updateUserDataFromDto(eq(requestDto), any(UserData.class));
+    @Test
+    @DisplayName("updateUser должен выбросить UserNotFoundException, если данных пользователя нет")
+    void updateUser_whenUserDoesNotExist_shouldThrowUserNotFoundException() {
+        // --- ARRANGE ---
+        UUID userId = UUID.randomUUID();
+        var requestDto = new UpdateUserDataRequestDto("NewLastName", null, null, null);
+        when(userDataRepository.updateFields(userId, "NewLastName", null, null, null, null)).thenReturn(Optional.empty());
 
-        // 3. Репозиторий "сохраняет" пользователя
-        when(userRepository.save(existingUser)).thenReturn(existingUser);
+        // --- ACT & ASSERT ---
+        assertThrows(UserNotFoundException.class, () -> userService.updateUser(userId, requestDto, null));
+    }
 
-        // 4. Маппер преобразует обновленные данные в финальный DTO
-        when(userMapper.toUserDataDto(existingUserData)).thenReturn(responseDto);
+    @Test
+    @DisplayName("getUsersByCursor должен вернуть страницу и курсор, если есть следующая страница")
+    void getUsersByCursor_whenMoreRowsExist_shouldReturnNextCursor() {
+        // --- ARRANGE ---
+        User first = userWithEmail("a@test.com");
+        User second = userWithEmail("b@test.com");
+        User extra = userWithEmail("c@test.com");
+        // Репозиторий запрашивается на одну запись больше размера страницы
+        when(userRepository.findIdPageAfter(UserSortKey.EMAIL, null, 3))
+                .thenReturn(List.of(first.getId(), second.getId(), extra.getId()));
+        // Пользователи из пакетной загрузки приходят в произвольном порядке
+        when(userRepository.findAllWithDataAndRolesByIdIn(List.of(first.getId(), second.getId())))
+                .thenReturn(List.of(second, first));
+        when(userMapper.toUserResponseDto(any(User.class))).thenReturn(mock(UserResponseDto.class));
 
+        // --- ACT ---
+        CursorPageResponseDto<UserResponseDto> page = userService.getUsersByCursor(UserSortKey.EMAIL, null, 2);
+
+        // --- ASSERT ---
+        assertThat(page.content()).hasSize(2);
+        assertThat(page.hasNext()).isTrue();
+        KeysetCursor cursor = KeysetCursor.decode(page.nextCursor(), UserSortKey.EMAIL);
+        assertThat(cursor.value()).isEqualTo("b@test.com");
+        assertThat(cursor.id()).isEqualTo(second.getId());
+    }
+
+    @Test
+    @DisplayName("getUsersByCursor должен передать разобранный курсор в репозиторий и не вернуть курсор на последней странице")
+    void getUsersByCursor_onLastPage_shouldPassCursorAndReturnNoNextCursor() {
+        // --- ARRANGE ---
+        KeysetCursor after = new KeysetCursor(UserSortKey.EMAIL, "b@test.com", UUID.randomUUID());
+        User last = userWithEmail("c@test.com");
+        when(userRepository.findIdPageAfter(UserSortKey.EMAIL, after, 3)).thenReturn(List.of(last.getId()));
+        when(userRepository.findAllWithDataAndRolesByIdIn(List.of(last.getId()))).thenReturn(List.of(last));
+        when(userMapper.toUserResponseDto(any(User.class))).thenReturn(mock(UserResponseDto.class));
 
         // --- ACT ---
-        UserDataResponseDto actualResponse = userService.updateUser(userId, requestDto);
+        CursorPageResponseDto<UserResponseDto> page = userService.getUsersByCursor(UserSortKey.EMAIL, after.encode(), 2);
+
+        // --- ASSERT ---
+        assertThat(page.content()).hasSize(1);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("searchUsers должен передать нормализованный запрос и экранированный префикс и сохранить порядок релевантности")
+    void searchUsers_shouldNormalizeQueryAndKeepRankOrder() {
+        // --- ARRANGE ---
+        User best = userWithEmail("ivan_ov@test.com");
+        User other = userWithEmail("ivanova@test.com");
+        when(userRepository.searchIds(eq("ivan_"), eq("ivan\\_%"), anyInt(), eq(50)))
+                .thenReturn(List.of(best.getId(), other.getId()));
+        when(userRepository.findAllWithDataAndRolesByIdIn(List.of(best.getId(), other.getId())))
+                .thenReturn(List.of(other, best));
+        UserResponseDto bestDto = mock(UserResponseDto.class);
+        UserResponseDto otherDto = mock(UserResponseDto.class);
+        when(userMapper.toUserResponseDto(best)).thenReturn(bestDto);
+        when(userMapper.toUserResponseDto(other)).thenReturn(otherDto);
 
+        // --- ACT ---
+        List<UserResponseDto> result = userService.searchUsers("  IVAN_ ", 500);
 
         // --- ASSERT ---
-        // Проверяем, что результат совпадает с ожидаемым
-        assertThat(actualResponse).isEqualTo(responseDto);
+        assertThat(result).containsExactly(bestDto, otherDto);
+    }
+
+    @Test
+    @DisplayName("searchUsers должен отклонять слишком короткий запрос, не обращаясь к БД")
+    void searchUsers_whenQueryTooShort_shouldThrowException() {
+        // --- ACT & ASSERT ---
+        assertThrows(IllegalArgumentException.class, () -> userService.searchUsers(" ab ", 10));
+        verify(userRepository, never()).searchIds(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("updateUser с устаревшей версией из If-Match должен выбросить PreconditionFailedException")
+    void updateUser_whenVersionDoesNotMatch_shouldThrowPreconditionFailed() {
+        // --- ARRANGE ---
+        UUID userId = UUID.randomUUID();
+        var requestDto = new UpdateUserDataRequestDto("NewLastName", "NewFirstName", null, null);
+        // Условный UPDATE не нашел строку с версией 2, а текущая версия — 3
+        when(userDataRepository.updateFields(userId, "NewLastName", "NewFirstName", null, null, 2L))
+                .thenReturn(Optional.empty());
+        when(userDataRepository.findVersionByUserId(userId)).thenReturn(Optional.of(3L));
+
+        // --- ACT & ASSERT ---
+        assertThrows(PreconditionFailedException.class, () -> userService.updateUser(userId, requestDto, 2L));
+        verify(entityManagerFactory, never()).getCache();
+    }
+
+    @Test
+    @DisplayName("removeAvatar должен вернуть прежний ключ аватара")
+    void removeAvatar_shouldReturnPreviousKey() {
+        // --- ARRANGE ---
+        UUID userId = UUID.randomUUID();
+        when(userDataRepository.clearAvatarKey(userId)).thenReturn(Optional.of(() -> "old-key"));
+
+        // --- ACT ---
+        String previousKey = userService.removeAvatar(userId);
+
+        // --- ASSERT ---
+        assertThat(previousKey).isEqualTo("old-key");
+        verify(entityManagerFactory.getCache()).evict(UserData.class, userId);
+    }
+
+    @Test
+    @DisplayName("removeAvatar должен выбросить UserNotFoundException и не трогать кэш, если данных пользователя нет")
+    void removeAvatar_whenUserDoesNotExist_shouldThrowUserNotFoundException() {
+        // --- ARRANGE ---
+        UUID userId = UUID.randomUUID();
+        when(userDataRepository.clearAvatarKey(userId)).thenReturn(Optional.empty());
+
+        // --- ACT & ASSERT ---
+        assertThrows(UserNotFoundException.class, () -> userService.removeAvatar(userId));
+        verify(entityManagerFactory, never()).getCache();
+    }
+
+    @Test
+    @DisplayName("setAvatar должен выбросить UserNotFoundException, если данных пользователя нет")
+    void setAvatar_whenUserDoesNotExist_shouldThrowUserNotFoundException() {
+        // --- ARRANGE ---
+        UUID userId = UUID.randomUUID();
+        when(userDataRepository.updateAvatarKey(userId, "new-key")).thenReturn(Optional.empty());
+
+        // --- ACT & ASSERT ---
+        assertThrows(UserNotFoundException.class, () -> userService.setAvatar(userId, "new-key"));
+    }
+
+    @Test
+    @DisplayName("getUserVersionTag должен собрать метку из версий User и UserData")
+    void getUserVersionTag_shouldCombineVersions() {
+        // --- ARRANGE ---
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findVersionsById(userId)).thenReturn(Optional.of(new VersionRow(4L, 7L)));
+
+        // --- ACT & ASSERT ---
+        assertThat(userService.getUserVersionTag(userId)).isEqualTo("4.7");
+    }
+
+    @Test
+    @DisplayName("getVersionedUserById должен собрать метку из версий загруженных сущностей без запроса версий")
+    void getVersionedUserById_shouldTakeVersionsFromLoadedEntities() {
+        // --- ARRANGE ---
+        UUID userId = UUID.randomUUID();
+        UserData userData = new UserData();
+        userData.setVersion(7);
+        User user = new User();
+        user.setVersion(4);
+        user.setUserData(userData);
+        var expectedDto = new UserResponseDto(userId, "testuser", null, null, null, null, null, null, null, Set.of());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userMapper.toUserResponseDto(user)).thenReturn(expectedDto);
+
+        // --- ACT ---
+        VersionedDto<UserResponseDto> versioned = userService.getVersionedUserById(userId);
+
+        // --- ASSERT ---
+        assertThat(versioned.versionTag()).isEqualTo("4.7");
+        assertThat(versioned.body()).isEqualTo(expectedDto);
+        verify(userRepository, never()).findVersionsById(any());
+    }
+
+    @Test
+    @DisplayName("getUserVersionTag должен выбросить UserNotFoundException, если пользователя нет")
+    void getUserVersionTag_whenUserDoesNotExist_shouldThrowException() {
+        // --- ARRANGE ---
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findVersionsById(userId)).thenReturn(Optional.empty());
+
+        // --- ACT & ASSERT ---
+        assertThrows(UserNotFoundException.class, () -> userService.getUserVersionTag(userId));
+    }
+
+    @Test
+    @DisplayName("lookupUsers должен собрать строки ролей в одного пользователя и сохранить порядок запроса")
+    void lookupUsers_shouldGroupRoleRowsAndKeepRequestOrder() {
+        // --- ARRANGE ---
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        when(userRepository.findLookupRowsByIdIn(any(UUID[].class))).thenReturn(List.of(
+                lookupRow(firstId, Role.ROLE_USER), lookupRow(secondId, null), lookupRow(firstId, Role.ROLE_ADMIN)));
+
+        // --- ACT ---
+        UserLookupResponseDto result = userService.lookupUsers(List.of(secondId, missingId, firstId, secondId));
+
+        // --- ASSERT ---
+        assertThat(result.users()).extracting(UserResponseDto::id).containsExactly(secondId, firstId);
+        assertThat(result.users().get(0).roles()).isEmpty();
+        assertThat(result.users().get(1).roles()).containsExactlyInAnyOrder(Role.ROLE_USER, Role.ROLE_ADMIN);
+        assertThat(result.notFound()).containsExactly(missingId);
+        ArgumentCaptor<UUID[]> idsCaptor = ArgumentCaptor.forClass(UUID[].class);
+        verify(userRepository).findLookupRowsByIdIn(idsCaptor.capture());
+        assertThat(idsCaptor.getValue()).containsExactly(secondId, missingId, firstId);
+    }
+
+    @Test
+    @DisplayName("lookupUsers должен отклонить слишком длинный список id без обращения к БД")
+    void lookupUsers_whenTooManyIds_shouldThrowException() {
+        // --- ARRANGE ---
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(501).toList();
+
+        // --- ACT & ASSERT ---
+        assertThrows(IllegalArgumentException.class, () -> userService.lookupUsers(ids));
+        verify(userRepository, never()).findLookupRowsByIdIn(any());
+    }
+
+    private static UserContactInfoRow contactInfoRow(UUID userId, Role role) {
+        return new ContactInfoRow(userId, "test", "test@test.com", "+7000", role);
+    }
+
+    private record ContactInfoRow(UUID getId, String getUsername, String getEmail, String getPhoneNumber, Role getRole)
+            implements UserContactInfoRow {
+    }
+
+    private static UserLookupRow lookupRow(UUID userId, Role role) {
+        return new LookupRow(userId, "test", "test@test.com", "+7000", "Last", "First", null,
+                LocalDate.of(1990, 1, 1), null, role);
+    }
+
+    private record LookupRow(UUID getId, String getUsername, String getEmail, String getPhoneNumber,
+                             String getLastName, String getFirstName, String getPatronymic,
+                             LocalDate getDateOfBirth, String getAvatarKey, Role getRole) implements UserLookupRow {
+    }
+
+    private record VersionRow(long getUserVersion, Long getDataVersion) implements UserVersionRow {
+    }
 
-        // Проверяем, что все нужные методы были вызваны
-        verify(userRepository, times(1)).findById(userId);
-        verify(userMapper, times(1)).updateUserDataFromDto(requestDto, existingUserData);
-        verify(userMapper, times(1)).toUserDataDto(existingUserData);
+    private static User userWithEmail(String email) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail(email);
+        return user;
     }
 }
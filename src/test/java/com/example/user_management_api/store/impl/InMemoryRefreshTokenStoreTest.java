@@ -0,0 +1,90 @@
+package com.example.user_management_api.store.impl;
+
+import com.example.user_management_api.model.enums.Role;
+import com.example.user_management_api.store.StoredRefreshToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InMemoryRefreshTokenStoreTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("save должен заменять предыдущий токен пользователя")
+    void save_shouldReplacePreviousUserToken() {
+        // --- ARRANGE ---
+        InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore(1000, "");
+        UUID userId = UUID.randomUUID();
+        store.save(token("first", userId, Instant.now().plusSeconds(60)));
+
+        // --- ACT ---
+        store.save(token("second", userId, Instant.now().plusSeconds(60)));
+
+        // --- ASSERT ---
+        assertThat(store.findByToken("first")).isEmpty();
+        assertThat(store.findByToken("second")).hasValueSatisfying(found -> {
+            assertThat(found.userId()).isEqualTo(userId);
+            assertThat(found.roles()).containsExactly(Role.ROLE_USER);
+        });
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("expireUpTo должен удалять токены только после наступления их срока")
+    void expireUpTo_shouldRemoveOnlyDueTokens() {
+        // --- ARRANGE ---
+        InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore(1000, "");
+        Instant now = Instant.now();
+        store.save(token("short", UUID.randomUUID(), now.plusSeconds(5)));
+        store.save(token("long", UUID.randomUUID(), now.plusSeconds(3600)));
+
+        // --- ACT ---
+        store.expireUpTo(now.plusSeconds(4).toEpochMilli());
+        boolean shortAliveBeforeDeadline = store.findByToken("short").isPresent();
+        store.expireUpTo(now.plusSeconds(10).toEpochMilli());
+
+        // --- ASSERT ---
+        assertThat(shortAliveBeforeDeadline).isTrue();
+        assertThat(store.findByToken("short")).isEmpty();
+        assertThat(store.findByToken("long")).isPresent();
+    }
+
+    @Test
+    @DisplayName("журнал должен восстанавливать живые токены после перезапуска")
+    void journal_shouldRestoreLiveTokensAfterRestart() throws Exception {
+        // --- ARRANGE ---
+        Path journal = tempDir.resolve("refresh-tokens.journal");
+        InMemoryRefreshTokenStore store = new InMemoryRefreshTokenStore(1000, journal.toString());
+        store.openJournal();
+        UUID deletedUserId = UUID.randomUUID();
+        store.save(token("kept", UUID.randomUUID(), Instant.now().plusSeconds(60)));
+        store.save(token("deleted", deletedUserId, Instant.now().plusSeconds(60)));
+        store.deleteByUserId(deletedUserId);
+        store.closeJournal();
+
+        // --- ACT ---
+        InMemoryRefreshTokenStore restarted = new InMemoryRefreshTokenStore(1000, journal.toString());
+        restarted.openJournal();
+
+        // --- ASSERT ---
+        assertThat(restarted.findByToken("kept")).hasValueSatisfying(found ->
+                assertThat(found.username()).isEqualTo("user"));
+        assertThat(restarted.findByToken("deleted")).isEmpty();
+        // Журнал сжат до одного живого токена, значения токенов в нем не хранятся
+        assertThat(Files.readAllLines(journal)).hasSize(1).noneMatch(line -> line.contains("kept"));
+        restarted.closeJournal();
+    }
+
+    private static StoredRefreshToken token(String value, UUID userId, Instant expiryDate) {
+        return new StoredRefreshToken(value, userId, "user", Set.of(Role.ROLE_USER), 0, expiryDate);
+    }
+}
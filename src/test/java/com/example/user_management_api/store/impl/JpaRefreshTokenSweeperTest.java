@@ -0,0 +1,84 @@
+package com.example.user_management_api.store.impl;
+
+import com.example.user_management_api.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JpaRefreshTokenSweeperTest {
+    private RefreshTokenRepository refreshTokenRepository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("sweepExpired должен удалять порциями, пока порция не окажется неполной")
+    void sweepExpired_shouldDeleteInChunksUntilPartialChunk() {
+        // --- ARRANGE ---
+        JpaRefreshTokenSweeper sweeper = new JpaRefreshTokenSweeper(refreshTokenRepository, true, 60_000, 10, 0, 100, meterRegistry);
+        when(refreshTokenRepository.deleteExpiredChunk(any(Instant.class), eq(10))).thenReturn(10, 10, 3);
+
+        // --- ACT ---
+        int purged = sweeper.sweepExpired(Instant.now());
+
+        // --- ASSERT ---
+        assertThat(purged).isEqualTo(23);
+        verify(refreshTokenRepository, times(3)).deleteExpiredChunk(any(Instant.class), eq(10));
+        assertThat(meterRegistry.get("refresh.tokens.purged").counter().count()).isEqualTo(23);
+    }
+
+    @Test
+    @DisplayName("sweepExpired не должен выполнять больше max-chunks порций за запуск")
+    void sweepExpired_shouldStopAfterMaxChunks() {
+        // --- ARRANGE ---
+        JpaRefreshTokenSweeper sweeper = new JpaRefreshTokenSweeper(refreshTokenRepository, true, 60_000, 10, 0, 2, meterRegistry);
+        when(refreshTokenRepository.deleteExpiredChunk(any(Instant.class), eq(10))).thenReturn(10);
+
+        // --- ACT ---
+        int purged = sweeper.sweepExpired(Instant.now());
+
+        // --- ASSERT ---
+        assertThat(purged).isEqualTo(20);
+        verify(refreshTokenRepository, times(2)).deleteExpiredChunk(any(Instant.class), eq(10));
+    }
+
+    @Test
+    @DisplayName("Очистка должна выполняться в собственном потоке, а не в общем планировщике")
+    void start_shouldSweepOnDedicatedThread() {
+        // --- ARRANGE ---
+        JpaRefreshTokenSweeper sweeper = new JpaRefreshTokenSweeper(refreshTokenRepository, true, 10, 10, 0, 100, meterRegistry);
+        AtomicReference<String> sweepThread = new AtomicReference<>();
+        when(refreshTokenRepository.deleteExpiredChunk(any(Instant.class), eq(10))).thenAnswer(invocation -> {
+            sweepThread.set(Thread.currentThread().getName());
+            return 0;
+        });
+
+        // --- ACT ---
+        sweeper.start();
+
+        // --- ASSERT ---
+        try {
+            verify(refreshTokenRepository, timeout(1000).atLeastOnce()).deleteExpiredChunk(any(Instant.class), eq(10));
+            assertThat(sweepThread.get()).isEqualTo("refresh-token-sweeper");
+        } finally {
+            sweeper.shutdown();
+        }
+    }
+}